@@ -0,0 +1,80 @@
+/*
+ * Project: Game 2048
+ * Last Modified: 10/18/26 11:30 AM
+ *
+ * Copyright (C) 2026 Programmer-Yang_Xun@outlook.com. All Rights Reserved.
+ * Welcome to visit https://GitHub.com/Hydr10n
+ */
+
+package com.hydr10n.game2048;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.ColorFilter;
+import android.graphics.Paint;
+import android.graphics.PixelFormat;
+import android.graphics.Rect;
+import android.graphics.drawable.Drawable;
+
+/*
+ * The board frame with its empty cells, rendered into a bitmap the first time it is drawn at a size and only copied after,
+ * in place of a background view per cell.
+ */
+class BoardBackground extends Drawable {
+    private final Drawable frame;
+    private final int rows, columns, padding;
+    private final float tileFullSideLength, scale;
+    private final Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+
+    private Bitmap bitmap;
+
+    public BoardBackground(Drawable frame, int rows, int columns, float tileFullSideLength, int padding, float scale) {
+        this.frame = frame;
+        this.rows = rows;
+        this.columns = columns;
+        this.tileFullSideLength = tileFullSideLength;
+        this.padding = padding;
+        this.scale = scale;
+        paint.setColor(TileStyle.getEmptyCellColor());
+    }
+
+    @Override
+    public void draw(Canvas canvas) {
+        final Rect bounds = getBounds();
+        if (bounds.isEmpty())
+            return;
+        if (bitmap == null || bitmap.getWidth() != bounds.width() || bitmap.getHeight() != bounds.height()) {
+            bitmap = Bitmap.createBitmap(bounds.width(), bounds.height(), Bitmap.Config.ARGB_8888);
+            render(new Canvas(bitmap), bounds.width(), bounds.height());
+        }
+        canvas.drawBitmap(bitmap, bounds.left, bounds.top, null);
+    }
+
+    @Override
+    public void setAlpha(int alpha) {
+    }
+
+    @Override
+    public void setColorFilter(ColorFilter colorFilter) {
+    }
+
+    @Override
+    public int getOpacity() {
+        return PixelFormat.TRANSLUCENT;
+    }
+
+    private void render(Canvas canvas, int width, int height) {
+        if (frame != null) {
+            frame.setBounds(0, 0, width, height);
+            frame.draw(canvas);
+        }
+        final int sideLength = (int) (tileFullSideLength * scale);
+        final float cornerRadius = BoardView.getCornerRadius(tileFullSideLength, scale);
+        for (int i = 0; i < rows; i++)
+            for (int j = 0; j < columns; j++) {
+                final int left = padding + BoardView.calculateOffset(tileFullSideLength, scale, j),
+                        top = padding + BoardView.calculateOffset(tileFullSideLength, scale, i);
+                canvas.drawRoundRect(left, top, left + sideLength, top + sideLength, cornerRadius, cornerRadius, paint);
+            }
+    }
+}
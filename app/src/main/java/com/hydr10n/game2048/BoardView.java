@@ -0,0 +1,352 @@
+/*
+ * Project: Game 2048
+ * Last Modified: 10/18/26 12:10 PM
+ *
+ * Copyright (C) 2026 Programmer-Yang_Xun@outlook.com. All Rights Reserved.
+ * Welcome to visit https://GitHub.com/Hydr10n
+ */
+
+package com.hydr10n.game2048;
+
+import android.animation.Animator;
+import android.animation.AnimatorListenerAdapter;
+import android.animation.ValueAnimator;
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Typeface;
+import android.graphics.drawable.Drawable;
+import android.util.AttributeSet;
+import android.util.SparseArray;
+import android.view.Display;
+import android.view.View;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * The whole board drawn on one Canvas: the cached BoardBackground, then every tile, interpolated by a single ValueAnimator.
+ * Changes made while handling one move are batched and start animating together on the next frame; a batch that arrives
+ * while the previous one still animates first jumps that one to its end. Tiles slide during the first half of an animation,
+ * then spawned tiles grow and merged ones pop. Tiles are drawn from the TileStyles of the board shape, built once.
+ * Boards of any rows x columns take the largest square tiles that fit and are centered in the view.
+ * Drawing, layout, style creation and the interval between animation frames are measured; an interval longer than
+ * one and a half refresh periods counts as a janky frame.
+ */
+public class BoardView extends View {
+    private static final class Sprite {
+        int exponent, fromRow, fromColumn, row, column, effect;
+    }
+
+    private static final int EFFECT_NONE = 0, EFFECT_SPAWN = 1, EFFECT_MERGE = 2;
+    private static final long ANIMATION_DURATION = 150, DEFAULT_FRAME_PERIOD_NANOS = TimeUnit.SECONDS.toNanos(1) / 60;
+    private static final float PADDING_SCALE = 0.06f, TILE_SCALE = 1 - 2 * PADDING_SCALE, SLIDE_FRACTION = 0.5f,
+            MIN_SCALE = 0.3f, MAX_SCALE = 1.2f;
+
+    private final Drawable frame;
+    private final Paint tilePaint = new Paint(Paint.ANTI_ALIAS_FLAG), textPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final ValueAnimator animator = ValueAnimator.ofFloat(0, 1);
+    private final ArrayList<Sprite> vanishing = new ArrayList<>();
+    private final ArrayDeque<Sprite> free = new ArrayDeque<>();
+    private final SparseArray<BoardBackground> backgrounds = new SparseArray<>();
+    private final SparseArray<TileStyle[]> styles = new SparseArray<>();
+    private final LatencyHistogram drawLatency = new LatencyHistogram(), frameInterval = new LatencyHistogram(),
+            layoutLatency = new LatencyHistogram(), styleLatency = new LatencyHistogram();
+    private final AtomicLong framesCount = new AtomicLong(), jankyFramesCount = new AtomicLong(), spritesCount = new AtomicLong();
+    private final Runnable startBatch = new Runnable() {
+        @Override
+        public void run() {
+            batchPending = false;
+            lastFrameTime = 0;
+            animator.start();
+        }
+    };
+
+    private int rows, columns, boardLeft, boardTop, boardWidth, boardHeight, padding, tileSideLength;
+    private float maxTextSize, tileFullSideLength, cornerRadius, progress = 1;
+    private boolean batchPending;
+    private long framePeriodNanos = DEFAULT_FRAME_PERIOD_NANOS, lastFrameTime;
+    private Sprite[] cells = new Sprite[0];
+
+    public BoardView(Context context, AttributeSet attrs) {
+        super(context, attrs);
+        frame = getBackground();
+        setBackground(null);
+        textPaint.setTypeface(Typeface.DEFAULT_BOLD);
+        textPaint.setTextAlign(Paint.Align.CENTER);
+        animator.setDuration(ANIMATION_DURATION);
+        animator.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
+            @Override
+            public void onAnimationUpdate(ValueAnimator animation) {
+                recordFrame();
+                progress = animation.getAnimatedFraction();
+                invalidate();
+            }
+        });
+        animator.addListener(new AnimatorListenerAdapter() {
+            @Override
+            public void onAnimationEnd(Animator animation) {
+                settle();
+                invalidate();
+            }
+        });
+    }
+
+    // clears the board; maxTextSize is in dp
+    public void setBoardSize(int rows, int columns, int maxTextSize) {
+        removeAllTiles();
+        this.rows = rows;
+        this.columns = columns;
+        this.maxTextSize = maxTextSize * getResources().getDisplayMetrics().density;
+        cells = new Sprite[rows * columns];
+        updateGeometry();
+    }
+
+    public void addTile(int row, int column, int exponent) {
+        beginBatch();
+        cells[row * columns + column] = obtain(exponent, row, column, EFFECT_SPAWN);
+    }
+
+    public void moveTile(int fromRow, int fromColumn, int toRow, int toColumn) {
+        beginBatch();
+        final Sprite sprite = cells[fromRow * columns + fromColumn];
+        cells[fromRow * columns + fromColumn] = null;
+        sprite.row = toRow;
+        sprite.column = toColumn;
+        cells[toRow * columns + toColumn] = sprite;
+    }
+
+    public void mergeTiles(int fromRow1, int fromColumn1, int fromRow2, int fromColumn2, int toRow, int toColumn) {
+        beginBatch();
+        final Sprite merged = cells[fromRow1 * columns + fromColumn1], sprite = cells[fromRow2 * columns + fromColumn2];
+        cells[fromRow1 * columns + fromColumn1] = null;
+        cells[fromRow2 * columns + fromColumn2] = null;
+        merged.row = toRow;
+        merged.column = toColumn;
+        vanishing.add(merged);
+        sprite.row = toRow;
+        sprite.column = toColumn;
+        sprite.exponent++;
+        sprite.effect = EFFECT_MERGE;
+        cells[toRow * columns + toColumn] = sprite;
+    }
+
+    // shows a tile at a cell without animating it; exponent 0 empties the cell
+    public void setTile(int row, int column, int exponent) {
+        beginBatch();
+        final int cell = row * columns + column;
+        if (cells[cell] != null)
+            free.push(cells[cell]);
+        cells[cell] = exponent == 0 ? null : obtain(exponent, row, column, EFFECT_NONE);
+    }
+
+    public void removeAllTiles() {
+        removeCallbacks(startBatch);
+        batchPending = false;
+        if (animator.isStarted())
+            animator.end();
+        settle();
+        for (int i = 0; i < cells.length; i++)
+            if (cells[i] != null) {
+                free.push(cells[i]);
+                cells[i] = null;
+            }
+        invalidate();
+    }
+
+    // of onDraw
+    public LatencyHistogram getDrawLatency() {
+        return drawLatency;
+    }
+
+    // between frames of the same animation
+    public LatencyHistogram getFrameInterval() {
+        return frameInterval;
+    }
+
+    // of fitting the board to the view and building its background
+    public LatencyHistogram getLayoutLatency() {
+        return layoutLatency;
+    }
+
+    // of building the TileStyles of a board shape
+    public LatencyHistogram getStyleLatency() {
+        return styleLatency;
+    }
+
+    public AtomicLong getFramesCount() {
+        return framesCount;
+    }
+
+    public AtomicLong getJankyFramesCount() {
+        return jankyFramesCount;
+    }
+
+    // tiles allocated rather than reused
+    public AtomicLong getSpritesCount() {
+        return spritesCount;
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        final Display display = getDisplay();
+        if (display != null && display.getRefreshRate() > 0)
+            framePeriodNanos = (long) (TimeUnit.SECONDS.toNanos(1) / display.getRefreshRate());
+    }
+
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        backgrounds.clear();
+        updateGeometry();
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        if (rows == 0)
+            return;
+        final long startTime = System.nanoTime();
+        BoardBackground background = backgrounds.get(getShapeKey());
+        if (background == null) {
+            background = new BoardBackground(frame, rows, columns, tileFullSideLength, padding, TILE_SCALE);
+            backgrounds.put(getShapeKey(), background);
+            layoutLatency.record(System.nanoTime() - startTime);
+        }
+        background.setBounds(boardLeft, boardTop, boardLeft + boardWidth, boardTop + boardHeight);
+        background.draw(canvas);
+        final float slide = Math.min(1, progress / SLIDE_FRACTION), pop = Math.max(0, (progress - SLIDE_FRACTION) / (1 - SLIDE_FRACTION));
+        if (slide < 1)
+            for (int i = 0; i < vanishing.size(); i++)
+                drawSprite(canvas, vanishing.get(i), vanishing.get(i).exponent, slide, 1);
+        for (Sprite sprite : cells) {
+            if (sprite == null)
+                continue;
+            switch (sprite.effect) {
+                case EFFECT_SPAWN:
+                    if (pop > 0)
+                        drawSprite(canvas, sprite, sprite.exponent, 1, MIN_SCALE + (1 - MIN_SCALE) * pop);
+                    break;
+                case EFFECT_MERGE:
+                    drawSprite(canvas, sprite, pop > 0 ? sprite.exponent : sprite.exponent - 1, slide, 1 + (MAX_SCALE - 1) * (1 - Math.abs(2 * pop - 1)));
+                    break;
+                default:
+                    drawSprite(canvas, sprite, sprite.exponent, slide, 1);
+            }
+        }
+        drawLatency.record(System.nanoTime() - startTime);
+    }
+
+    // position of a row or column within the padding
+    static int calculateOffset(float tileFullSideLength, float scale, int index) {
+        return (int) (tileFullSideLength * ((1 - scale) / 2 + index));
+    }
+
+    static float getCornerRadius(float tileFullSideLength, float scale) {
+        return tileFullSideLength * scale * 0.05f;
+    }
+
+    private void updateGeometry() {
+        styles.clear();
+        if (rows == 0)
+            return;
+        final long startTime = System.nanoTime();
+        tileFullSideLength = Math.min(getWidth() / (columns + PADDING_SCALE * 2), getHeight() / (rows + PADDING_SCALE * 2));
+        boardWidth = (int) (tileFullSideLength * (columns + PADDING_SCALE * 2));
+        boardHeight = (int) (tileFullSideLength * (rows + PADDING_SCALE * 2));
+        boardLeft = (getWidth() - boardWidth) / 2;
+        boardTop = (getHeight() - boardHeight) / 2;
+        padding = (int) (tileFullSideLength * PADDING_SCALE);
+        tileSideLength = (int) (tileFullSideLength * TILE_SCALE);
+        cornerRadius = getCornerRadius(tileFullSideLength, TILE_SCALE);
+        layoutLatency.record(System.nanoTime() - startTime);
+    }
+
+    private void recordFrame() {
+        final long time = System.nanoTime();
+        if (lastFrameTime != 0) {
+            final long interval = time - lastFrameTime;
+            frameInterval.record(interval);
+            if (interval > framePeriodNanos * 3 / 2)
+                jankyFramesCount.incrementAndGet();
+        }
+        framesCount.incrementAndGet();
+        lastFrameTime = time;
+    }
+
+    private void beginBatch() {
+        if (!batchPending) {
+            if (animator.isStarted())
+                animator.end();
+            settle();
+            progress = 0;
+            batchPending = true;
+            postOnAnimation(startBatch);
+        }
+        invalidate();
+    }
+
+    // the state the running animation ends in
+    private void settle() {
+        progress = 1;
+        for (int i = 0; i < vanishing.size(); i++)
+            free.push(vanishing.get(i));
+        vanishing.clear();
+        for (Sprite sprite : cells)
+            if (sprite != null) {
+                sprite.fromRow = sprite.row;
+                sprite.fromColumn = sprite.column;
+                sprite.effect = EFFECT_NONE;
+            }
+    }
+
+    private Sprite obtain(int exponent, int row, int column, int effect) {
+        Sprite sprite = free.poll();
+        if (sprite == null) {
+            sprite = new Sprite();
+            spritesCount.incrementAndGet();
+        }
+        sprite.exponent = exponent;
+        sprite.fromRow = sprite.row = row;
+        sprite.fromColumn = sprite.column = column;
+        sprite.effect = effect;
+        return sprite;
+    }
+
+    private void drawSprite(Canvas canvas, Sprite sprite, int exponent, float slide, float scale) {
+        final float half = tileSideLength / 2f,
+                x = boardLeft + padding + interpolate(sprite.fromColumn, sprite.column, slide) + half,
+                y = boardTop + padding + interpolate(sprite.fromRow, sprite.row, slide) + half;
+        final TileStyle style = getStyle(exponent);
+        canvas.save();
+        canvas.scale(scale, scale, x, y);
+        tilePaint.setColor(style.getBackgroundColor());
+        canvas.drawRoundRect(x - half, y - half, x + half, y + half, cornerRadius, cornerRadius, tilePaint);
+        textPaint.setColor(style.getTextColor());
+        textPaint.setTextSize(style.getTextSize());
+        canvas.drawText(style.getText(), x, y + style.getBaselineOffset(), textPaint);
+        canvas.restore();
+    }
+
+    private float interpolate(int from, int to, float fraction) {
+        final int fromOffset = calculateOffset(tileFullSideLength, TILE_SCALE, from);
+        return fromOffset + (calculateOffset(tileFullSideLength, TILE_SCALE, to) - fromOffset) * fraction;
+    }
+
+    private TileStyle getStyle(int exponent) {
+        TileStyle[] shapeStyles = styles.get(getShapeKey());
+        if (shapeStyles == null || exponent >= shapeStyles.length) {
+            final long startTime = System.nanoTime();
+            shapeStyles = TileStyle.createAll(exponent, textPaint, tileSideLength, maxTextSize);
+            styles.put(getShapeKey(), shapeStyles);
+            styleLatency.record(System.nanoTime() - startTime);
+        }
+        return shapeStyles[exponent];
+    }
+
+    private int getShapeKey() {
+        return rows << Byte.SIZE | columns;
+    }
+}
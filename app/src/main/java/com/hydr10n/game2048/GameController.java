@@ -0,0 +1,460 @@
+/*
+ * Project: Game 2048
+ * Last Modified: 10/18/26 8:15 PM
+ *
+ * Copyright (C) 2026 Programmer-Yang_Xun@outlook.com. All Rights Reserved.
+ * Welcome to visit https://GitHub.com/Hydr10n
+ */
+
+package com.hydr10n.game2048;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+
+import com.hydr10n.game2048.engine.Direction;
+import com.hydr10n.game2048.engine.Game;
+import com.hydr10n.game2048.engine.GameActor;
+import com.hydr10n.game2048.engine.GameFrame;
+import com.hydr10n.game2048.engine.History;
+import com.hydr10n.game2048.engine.MoveListener;
+import com.hydr10n.game2048.engine.Replay;
+import com.hydr10n.game2048.engine.Rules;
+import com.hydr10n.game2048.engine.Snapshot;
+import com.hydr10n.game2048.engine.TrainingData;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * The game of the selected board shape with its History, Replay and GameSave, all owned by the thread of one GameActor.
+ * The UI only submits commands and renders the State published after each command that changed something,
+ * delivered to the listener on the main thread in order.
+ * Debug builds also record moves as TrainingData in the files directory, a game's written once it ends or is left, e.g. by
+ * an undo or a new game, with NO_OUTCOME then; a few small files are kept, the oldest deleted.
+ */
+class GameController {
+    // immutable
+    static final class State {
+        private final int selection;
+        private final long bestScore;
+        private final GameFrame frame;
+        private final boolean started, canUndo, canRedo;
+        private final long inputEventTime;
+
+        State(int selection, GameFrame frame, long bestScore, boolean started, boolean canUndo, boolean canRedo, long inputEventTime) {
+            this.selection = selection;
+            this.frame = frame;
+            this.bestScore = bestScore;
+            this.started = started;
+            this.canUndo = canUndo;
+            this.canRedo = canRedo;
+            this.inputEventTime = inputEventTime;
+        }
+
+        // counts select() calls up to the one this state belongs to
+        public int getSelection() {
+            return selection;
+        }
+
+        public GameFrame getFrame() {
+            return frame;
+        }
+
+        public long getBestScore() {
+            return bestScore;
+        }
+
+        public GameState getGameState() {
+            return !started ? GameState.NotStarted : frame.isWon() ? GameState.Won : frame.isOver() ? GameState.Over : GameState.Started;
+        }
+
+        public boolean canUndo() {
+            return canUndo;
+        }
+
+        public boolean canRedo() {
+            return canRedo;
+        }
+
+        // of the input whose move led to this state, or NO_EVENT_TIME
+        public long getInputEventTime() {
+            return inputEventTime;
+        }
+    }
+
+    interface Listener {
+        void onState(State state);
+    }
+
+    interface ExportListener {
+        // file is null if the replay could not be written
+        void onExported(File file);
+    }
+
+    static final long NO_EVENT_TIME = -1;
+    private static final int HISTORY_MEMORY_BUDGET_BYTES = 1 << 20;
+    private static final String HISTORY_EXTENSION = "history", REPLAY_EXTENSION = "replay";
+    private static final String TRAINING_DIRECTORY = "training", TRAINING_PREFIX = "moves";
+    private static final int TRAINING_CHUNK_BYTES = 64 << 10, TRAINING_BUFFERS = 2, TRAINING_FILE_BYTES = 1 << 20, TRAINING_FILES = 16;
+
+    private final GameSave gameSave;
+    private final TrainingData.Writer trainingWriter;    // null unless recording
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final Random seedRandom = new Random();
+    private final LatencyHistogram modelLatency = new LatencyHistogram(), moveLatency = new LatencyHistogram(),
+            appendLatency = new LatencyHistogram(), saveLatency = new LatencyHistogram();
+    private final AtomicLong movesCount = new AtomicLong(), savesCount = new AtomicLong();
+    private final GameActor actor;
+    private int requestedSelection;    // main thread
+
+    // owned by the actor's thread
+    private int selection;
+    private long bestScore;
+    private Rules rules;
+    private boolean started;
+    private Game game;
+    private History history;
+    private long[] historyBoard;
+    private Replay replay;
+    private TrainingData.Episode episode;
+    private long[] episodeBoard;
+    private long inputEventTime = NO_EVENT_TIME;
+
+    public GameController(Context context, final Listener listener) {
+        gameSave = new GameSave(context);
+        if (BuildConfig.DEBUG) {
+            final File trainingDirectory = new File(context.getFilesDir(), TRAINING_DIRECTORY);
+            trainingDirectory.mkdirs();
+            trainingWriter = new TrainingData.Writer(trainingDirectory, TRAINING_PREFIX, TRAINING_CHUNK_BYTES, TRAINING_BUFFERS,
+                    TRAINING_FILE_BYTES, TRAINING_FILES);
+        } else
+            trainingWriter = null;
+        actor = new GameActor(new Game(4), executor, new GameActor.Listener() {
+            @Override
+            public void onFrame(GameFrame frame) {
+                final State state = new State(selection, frame, bestScore, started, history.canUndo(), history.canRedo(), inputEventTime);
+                mainHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        listener.onState(state);
+                    }
+                });
+            }
+        });
+    }
+
+    // loads the saved game of a board shape; returns the selection its states will carry
+    public int select(final Rules rules) {
+        final int selection = ++requestedSelection;
+        actor.load(new GameActor.Loader() {
+            @Override
+            public Game load() {
+                saveData();
+                endEpisode(TrainingData.NO_OUTCOME);
+                GameController.this.selection = selection;
+                GameController.this.rules = rules;
+                if (trainingWriter != null) {
+                    episode = new TrainingData.Episode(rules);
+                    episodeBoard = rules.newBoard();
+                }
+                inputEventTime = NO_EVENT_TIME;
+                final Snapshot snapshot = gameSave.load(rules);
+                bestScore = snapshot.getBestScore();
+                started = snapshot.getBoard() != null;
+                game = new Game(rules);
+                historyBoard = rules.newBoard();
+                if (started)
+                    game.setBoard(snapshot.getBoard());
+                if (snapshot.isKeepingGoing())
+                    game.keepGoing();
+                game.setScore(snapshot.getScore());
+                loadHistory();
+                loadReplay();
+                return game;
+            }
+        });
+        return selection;
+    }
+
+    // eventTime: of the input asking for the move in the SystemClock.uptimeMillis() base, or NO_EVENT_TIME
+    public void move(final Direction direction, final long eventTime) {
+        actor.submit(new GameActor.Command() {
+            @Override
+            public GameFrame.Change execute(Game game, MoveListener listener) {
+                inputEventTime = eventTime;
+                if (!started || game.isWon() || game.isOver())
+                    return null;
+                if (episode != null)
+                    game.getBoard(episodeBoard);
+                final long scoreBefore = game.getScore(), startTime = System.nanoTime();
+                if (!game.move(direction, listener))
+                    return null;
+                moveLatency.record(System.nanoTime() - startTime);
+                movesCount.incrementAndGet();
+                if (eventTime != NO_EVENT_TIME)
+                    modelLatency.record(TimeUnit.MILLISECONDS.toNanos(SystemClock.uptimeMillis() - eventTime));
+                bestScore = Math.max(bestScore, game.getScore());
+                if (episode != null) {
+                    episode.add(episodeBoard, direction, game.getScore() - scoreBefore);
+                    if (game.isWon() || game.isOver())
+                        endEpisode(game.getScore());
+                }
+                game.getBoard(historyBoard);
+                history.push(historyBoard, game.getScore(), direction, game.getLastSpawnCell(), game.getLastSpawnExponent());
+                if (replay != null) {
+                    replay.addMove(direction);
+                    replay.setScore(game.getScore());
+                }
+                if (game.isWon() || game.isOver() || !appendMove(direction))
+                    saveGameProgress();
+                return GameFrame.Change.Move;
+            }
+        });
+    }
+
+    public void undo() {
+        actor.submit(new GameActor.Command() {
+            @Override
+            public GameFrame.Change execute(Game game, MoveListener listener) {
+                if (history == null || !history.undo())
+                    return null;
+                if (replay != null)
+                    replay.addUndo();
+                return showHistoryPosition();
+            }
+        });
+    }
+
+    public void redo() {
+        actor.submit(new GameActor.Command() {
+            @Override
+            public GameFrame.Change execute(Game game, MoveListener listener) {
+                if (history == null || !history.redo())
+                    return null;
+                if (replay != null)
+                    replay.addRedo();
+                return showHistoryPosition();
+            }
+        });
+    }
+
+    public void newGame() {
+        actor.submit(new GameActor.Command() {
+            @Override
+            public GameFrame.Change execute(Game game, MoveListener listener) {
+                if (history == null)
+                    return null;
+                inputEventTime = NO_EVENT_TIME;
+                endEpisode(TrainingData.NO_OUTCOME);
+                final long seed = seedRandom.nextLong();
+                game.newGame(seed, listener);
+                replay = new Replay(rules, game.getSpawnRule(), seed);
+                started = true;
+                history.reset(game.getBoard(), 0);
+                saveGameProgress();
+                return GameFrame.Change.NewGame;
+            }
+        });
+    }
+
+    // plays on past a win, toward bigger tiles
+    public void keepGoing() {
+        actor.submit(new GameActor.Command() {
+            @Override
+            public GameFrame.Change execute(Game game, MoveListener listener) {
+                if (history == null || !game.isWon())
+                    return null;
+                inputEventTime = NO_EVENT_TIME;
+                game.keepGoing();
+                if (replay != null)
+                    replay.addKeepGoing();
+                saveGameProgress();
+                return GameFrame.Change.Restore;
+            }
+        });
+    }
+
+    // writes whatever is not on disk yet
+    public void pause() {
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                saveData();
+                gameSave.flush();
+                if (trainingWriter != null)
+                    try {
+                        trainingWriter.flush();
+                    } catch (IOException ignored) {
+                    }
+            }
+        });
+    }
+
+    public void exportReplay(final File directory, final ExportListener listener) {
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                File file = null;
+                if (replay != null && directory != null) {
+                    file = new File(directory, "game" + rules + '-' + System.currentTimeMillis() + '.' + REPLAY_EXTENSION);
+                    try (FileOutputStream stream = new FileOutputStream(file)) {
+                        stream.write(replay.toBytes());
+                    } catch (IOException exception) {
+                        file = null;
+                    }
+                }
+                final File exported = file;
+                mainHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        listener.onExported(exported);
+                    }
+                });
+            }
+        });
+    }
+
+    public void close() {
+        pause();
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                endEpisode(TrainingData.NO_OUTCOME);
+                gameSave.close();
+                if (trainingWriter != null)
+                    try {
+                        trainingWriter.close();
+                    } catch (IOException ignored) {
+                    }
+            }
+        });
+        executor.shutdown();
+    }
+
+    // from input event to the move reaching the game, with millisecond resolution; recorded on the actor's thread
+    public LatencyHistogram getModelLatency() {
+        return modelLatency;
+    }
+
+    // of the engine moving the tiles and spawning the next one, reporting every tile to the frame's recorder
+    public LatencyHistogram getMoveLatency() {
+        return moveLatency;
+    }
+
+    // of queueing a move's journal record, or finding the journal full
+    public LatencyHistogram getAppendLatency() {
+        return appendLatency;
+    }
+
+    // of queueing a snapshot; GameSave writes both on its own thread, measured by getWriteLatency()
+    public LatencyHistogram getSaveLatency() {
+        return saveLatency;
+    }
+
+    public AtomicLong getMovesCount() {
+        return movesCount;
+    }
+
+    public AtomicLong getSavesCount() {
+        return savesCount;
+    }
+
+    public LatencyHistogram getWriteLatency() {
+        return gameSave.getWriteLatency();
+    }
+
+    public AtomicLong getWritesCount() {
+        return gameSave.getWritesCount();
+    }
+
+    private GameFrame.Change showHistoryPosition() {
+        inputEventTime = NO_EVENT_TIME;
+        endEpisode(TrainingData.NO_OUTCOME);
+        history.getBoard(historyBoard);
+        game.restore(historyBoard, history.getScore());
+        started = true;
+        if (replay != null)
+            replay.setScore(game.getScore());
+        saveGameProgress();
+        return GameFrame.Change.Restore;
+    }
+
+    private boolean appendMove(Direction direction) {
+        final long startTime = System.nanoTime();
+        final boolean appended = gameSave.append(rules, direction, game.getLastSpawnCell(), game.getLastSpawnExponent());
+        appendLatency.record(System.nanoTime() - startTime);
+        return appended;
+    }
+
+    // recording is best effort: a writer that failed once drops the rest
+    private void endEpisode(long outcome) {
+        if (episode == null || episode.size() == 0)
+            return;
+        try {
+            trainingWriter.write(episode, outcome);
+        } catch (IOException ignored) {
+        }
+        episode.clear();
+    }
+
+    private void saveGameProgress() {
+        final long startTime = System.nanoTime();
+        final boolean playing = started && !game.isWon() && !game.isOver();
+        final long score = playing ? game.getScore() : 0;
+        gameSave.save(new Snapshot(rules, score, Math.max(score, bestScore), playing ? game.getBoard() : null, playing && game.isKeepingGoing()));
+        saveLatency.record(System.nanoTime() - startTime);
+        savesCount.incrementAndGet();
+    }
+
+    private void saveData() {
+        if (history != null)
+            gameSave.saveData(rules, HISTORY_EXTENSION, history.toBytes());
+        if (replay != null)
+            gameSave.saveData(rules, REPLAY_EXTENSION, replay.toBytes());
+    }
+
+    // the saved history only if it ends where the saved game does
+    private void loadHistory() {
+        final byte[] bytes = gameSave.loadData(rules, HISTORY_EXTENSION);
+        history = bytes == null ? null : History.fromBytes(rules, HISTORY_MEMORY_BUDGET_BYTES, bytes);
+        if (history != null)
+            history.getBoard(historyBoard);
+        if (history == null || !Arrays.equals(historyBoard, game.getBoard()) || history.getScore() != game.getScore()) {
+            history = new History(rules, HISTORY_MEMORY_BUDGET_BYTES);
+            history.reset(game.getBoard(), game.getScore());
+        }
+    }
+
+    /*
+     * The saved replay only if playing it back ends where the saved game does; the game it played then replaces the loaded
+     * one, so the spawns still to come follow from the seed. Games saved without one stay unrecorded until a new game.
+     */
+    private void loadReplay() {
+        replay = null;
+        final byte[] bytes = started ? gameSave.loadData(rules, REPLAY_EXTENSION) : null;
+        if (bytes == null)
+            return;
+        try {
+            replay = Replay.fromBytes(bytes);
+        } catch (IOException exception) {
+            return;
+        }
+        final Game played = replay.getRules() == rules ? replay.play() : null;
+        if (played == null || !Arrays.equals(played.getBoard(), game.getBoard()) || played.getScore() != game.getScore()
+                || played.isKeepingGoing() != game.isKeepingGoing()) {
+            replay = null;
+            return;
+        }
+        game = played;
+    }
+}
@@ -1,60 +1,242 @@
 /*
  * Project: Game 2048
- * Last Modified: 6/21/20 9:50 PM
+ * Last Modified: 10/18/26 7:45 PM
  *
- * Copyright (C) 2020 Programmer-Yang_Xun@outlook.com. All Rights Reserved.
+ * Copyright (C) 2026 Programmer-Yang_Xun@outlook.com. All Rights Reserved.
  * Welcome to visit https://GitHub.com/Hydr10n
  */
 
 package com.hydr10n.game2048;
 
-import android.app.Activity;
+import android.content.Context;
 import android.content.SharedPreferences;
+import android.util.AtomicFile;
 
+import com.hydr10n.game2048.engine.Direction;
+import com.hydr10n.game2048.engine.GridCodec;
+import com.hydr10n.game2048.engine.MoveJournal;
+import com.hydr10n.game2048.engine.Rules;
+import com.hydr10n.game2048.engine.Snapshot;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Per board shape, a binary Snapshot replaced atomically and a MoveJournal of the moves played since, a few bytes per move.
+ * Saving only records what is pending for a shape and one background thread writes it WRITE_DELAY_MILLIS later,
+ * so a burst of swipes costs a single write. Files are named after the shape, e.g. game4.bin or game4x6.bin.
+ * Loading replays the journal over the snapshot; the first move after loading compacts both into a new snapshot,
+ * as does every JOURNAL_MAX_RECORDS-th move. Other data of a shape, such as the undo History or the Replay, is kept in files
+ * of their own named by extension, written only when asked to.
+ * A square size never saved this way is read once from the old SharedPreferences strings.
+ */
 class GameSave {
-    private static final String ROW_DELIMITER = ";", COLUMN_DELIMITER = ",";
+    private static final class Pending {
+        Snapshot snapshot;
+        final Map<String, byte[]> data = new HashMap<>();
+        final ByteArrayOutputStream records = new ByteArrayOutputStream();
+    }
 
-    private SharedPreferences sharedPreferences;
-    private SharedPreferences.Editor editor;
+    private static final int JOURNAL_MAX_RECORDS = 256;
+    private static final long WRITE_DELAY_MILLIS = 250;
+    private static final String LEGACY_FILE_NAME = "data";
 
-    public GameSave(Activity activity, String fileName) {
-        sharedPreferences = activity.getSharedPreferences(fileName, Activity.MODE_PRIVATE);
-        editor = sharedPreferences.edit();
+    private final File directory;
+    private final SharedPreferences legacyPreferences;
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+    private final Map<Rules, Pending> pending = new HashMap<>();
+    private final Map<Rules, Integer> journalLengths = new HashMap<>();
+    private final LatencyHistogram writeLatency = new LatencyHistogram();
+    private final AtomicLong writesCount = new AtomicLong();
+    private final Runnable writePending = new Runnable() {
+        @Override
+        public void run() {
+            final Rules[] shapes;
+            final Pending[] entries;
+            synchronized (pending) {
+                shapes = pending.keySet().toArray(new Rules[0]);
+                entries = new Pending[shapes.length];
+                for (int i = 0; i < shapes.length; i++)
+                    entries[i] = pending.get(shapes[i]);
+                pending.clear();
+            }
+            if (shapes.length == 0)
+                return;
+            final long startTime = System.nanoTime();
+            for (int i = 0; i < shapes.length; i++)
+                write(shapes[i], entries[i]);
+            writeLatency.record(System.nanoTime() - startTime);
+            writesCount.incrementAndGet();
+        }
+    };
+
+    public GameSave(Context context) {
+        directory = context.getFilesDir();
+        legacyPreferences = context.getSharedPreferences(LEGACY_FILE_NAME, Context.MODE_PRIVATE);
     }
 
-    public boolean saveData(String key, int data) {
-        editor.putInt(key, data);
-        return editor.commit();
+    public void save(Snapshot snapshot) {
+        synchronized (pending) {
+            final Pending entry = getPending(snapshot.getRules());
+            entry.snapshot = snapshot;
+            entry.records.reset();
+        }
+        if (snapshot.getBoard() == null)
+            journalLengths.remove(snapshot.getRules());
+        else
+            journalLengths.put(snapshot.getRules(), 0);
     }
 
-    public boolean saveData(String key, int[][] data) {
-        StringBuilder stringBuilder = new StringBuilder();
-        if (data != null)
-            for (int i = 0; i < data.length; i++) {
-                for (int j = 0; j < data[i].length; j++)
-                    stringBuilder.append(data[i][j]).append(j == data[i].length - 1 ? "" : COLUMN_DELIMITER);
-                stringBuilder.append(i == data.length - 1 ? "" : ROW_DELIMITER);
-            }
-        editor.putString(key, stringBuilder.toString());
-        return editor.commit();
+    // returns false instead when the move has to be saved with a snapshot
+    public boolean append(Rules rules, Direction direction, int spawnCell, int spawnExponent) {
+        final Integer length = journalLengths.get(rules);
+        if (length == null || length == JOURNAL_MAX_RECORDS)
+            return false;
+        synchronized (pending) {
+            getPending(rules).records.write(MoveJournal.createRecord(direction, spawnCell, spawnExponent), 0, MoveJournal.RECORD_LENGTH);
+        }
+        journalLengths.put(rules, length + 1);
+        return true;
     }
 
-    public int loadIntData(String key) {
-        return sharedPreferences.getInt(key, 0);
+    public void saveData(Rules rules, String extension, byte[] bytes) {
+        synchronized (pending) {
+            getPending(rules).data.put(extension, bytes);
+        }
     }
 
-    public int[][] loadInt2DData(String key) {
-        final String rawData = sharedPreferences.getString(key, "");
-        if (rawData.equals(""))
+    // null if none was saved
+    public byte[] loadData(Rules rules, String extension) {
+        flush();
+        try {
+            return getFile(rules, extension).readFully();
+        } catch (IOException exception) {
             return null;
-        final String[] strings = rawData.split(ROW_DELIMITER);
-        final int[][] data = new int[strings.length][];
-        for (int i = 0; i < strings.length; i++) {
-            final String[] temp = strings[i].split(COLUMN_DELIMITER);
-            data[i] = new int[temp.length];
-            for (int j = 0; j < temp.length; j++)
-                data[i][j] = Integer.parseInt(temp[j]);
         }
-        return data;
     }
-}
\ No newline at end of file
+
+    // waits until everything saved so far is on disk
+    public void flush() {
+        try {
+            executor.submit(writePending).get();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException exception) {
+            throw new RuntimeException(exception.getCause());
+        }
+    }
+
+    // of writing one batch of pending saves to disk, recorded on the background thread
+    public LatencyHistogram getWriteLatency() {
+        return writeLatency;
+    }
+
+    public AtomicLong getWritesCount() {
+        return writesCount;
+    }
+
+    public void close() {
+        flush();
+        executor.shutdown();
+    }
+
+    public Snapshot load(Rules rules) {
+        flush();
+        journalLengths.remove(rules);
+        Snapshot snapshot;
+        try {
+            snapshot = Snapshot.fromBytes(getSnapshotFile(rules).readFully());
+        } catch (FileNotFoundException exception) {
+            return loadLegacy(rules);
+        } catch (IOException exception) {
+            return new Snapshot(rules, 0, 0, null);
+        }
+        if (snapshot.getRules() != rules)
+            return new Snapshot(rules, 0, 0, null);
+        try {
+            snapshot = MoveJournal.replay(snapshot, getJournalFile(rules).readFully());
+        } catch (IOException ignored) {
+        }
+        return snapshot;
+    }
+
+    private Pending getPending(Rules rules) {
+        if (pending.isEmpty())
+            executor.schedule(writePending, WRITE_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+        Pending entry = pending.get(rules);
+        if (entry == null) {
+            entry = new Pending();
+            pending.put(rules, entry);
+        }
+        return entry;
+    }
+
+    private AtomicFile getSnapshotFile(Rules rules) {
+        return getFile(rules, "bin");
+    }
+
+    private AtomicFile getJournalFile(Rules rules) {
+        return getFile(rules, "journal");
+    }
+
+    // Rules.toString() keeps the names square sizes had before other shapes
+    private AtomicFile getFile(Rules rules, String extension) {
+        return new AtomicFile(new File(directory, "game" + rules + '.' + extension));
+    }
+
+    private void write(Rules rules, Pending entry) {
+        for (Map.Entry<String, byte[]> data : entry.data.entrySet())
+            write(getFile(rules, data.getKey()), data.getValue());
+        if (entry.snapshot == null) {
+            try (FileOutputStream stream = new FileOutputStream(getJournalFile(rules).getBaseFile(), true)) {
+                entry.records.writeTo(stream);
+            } catch (IOException ignored) {
+            }
+            return;
+        }
+        final ByteArrayOutputStream journal = new ByteArrayOutputStream();
+        journal.write(MoveJournal.createHeader(entry.snapshot), 0, MoveJournal.HEADER_LENGTH);
+        journal.write(entry.records.toByteArray(), 0, entry.records.size());
+        if (write(getSnapshotFile(rules), entry.snapshot.toBytes()))
+            write(getJournalFile(rules), journal.toByteArray());
+    }
+
+    private boolean write(AtomicFile file, byte[] bytes) {
+        FileOutputStream stream = null;
+        try {
+            stream = file.startWrite();
+            stream.write(bytes);
+            file.finishWrite(stream);
+            return true;
+        } catch (IOException exception) {
+            file.failWrite(stream);
+            return false;
+        }
+    }
+
+    private Snapshot loadLegacy(Rules rules) {
+        if (!rules.isSquare())
+            return new Snapshot(rules, 0, 0, null);
+        final String keyPrefix = "Layout" + rules.getRows();
+        final int[][] tilesNumbers = GridCodec.decode(legacyPreferences.getString(keyPrefix + "TilesNumbers", ""));
+        long[] board = null;
+        if (tilesNumbers != null) {
+            board = rules.newBoard();
+            for (int i = 0; i < rules.getRows(); i++)
+                for (int j = 0; j < rules.getColumns(); j++)
+                    if (tilesNumbers[i][j] != 0)
+                        rules.setExponent(board, i, j, Integer.numberOfTrailingZeros(tilesNumbers[i][j]));
+        }
+        return new Snapshot(rules, legacyPreferences.getInt(keyPrefix + "Score", 0), legacyPreferences.getInt(keyPrefix + "BestScore", 0), board);
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Project: Game 2048
+ * Last Modified: 10/18/26 12:10 PM
+ *
+ * Copyright (C) 2026 Programmer-Yang_Xun@outlook.com. All Rights Reserved.
+ * Welcome to visit https://GitHub.com/Hydr10n
+ */
+
+package com.hydr10n.game2048;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/*
+ * Latencies in nanoseconds, bucketed the way HdrHistogram does it: exactly below SUB_BUCKETS, then SUB_BUCKETS buckets
+ * per power of two, so every value is kept to within 1 / SUB_BUCKETS (about 3%) up to MAX_NANOS, past which values are
+ * counted as MAX_NANOS. Recording is lock-free and allocates nothing, so any thread may record while another reads;
+ * a read during recording may miss the values being recorded.
+ */
+class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 5, SUB_BUCKETS = 1 << SUB_BUCKET_BITS, MAX_MAGNITUDE = 36;
+    static final long MAX_NANOS = (1L << MAX_MAGNITUDE) - 1;    // about 68 s
+
+    private final AtomicLongArray counts = new AtomicLongArray(getIndex(MAX_NANOS) + 1);
+    private final AtomicLong count = new AtomicLong(), totalNanos = new AtomicLong(), maxNanos = new AtomicLong();
+
+    public void record(long nanos) {
+        nanos = Math.min(Math.max(0, nanos), MAX_NANOS);
+        counts.incrementAndGet(getIndex(nanos));
+        count.incrementAndGet();
+        totalNanos.addAndGet(nanos);
+        long max;
+        do
+            max = maxNanos.get();
+        while (nanos > max && !maxNanos.compareAndSet(max, nanos));
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+
+    public double getMeanNanos() {
+        final long count = getCount();
+        return count == 0 ? 0 : (double) totalNanos.get() / count;
+    }
+
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    // the latency that fraction of the recorded ones do not exceed, rounded up to the end of its bucket but never past the max
+    public long getPercentileNanos(double fraction) {
+        long total = 0;
+        for (int i = 0; i < counts.length(); i++)
+            total += counts.get(i);
+        final long rank = Math.max(1, (long) Math.ceil(fraction * total));
+        long seen = 0;
+        for (int i = 0; i < counts.length(); i++)
+            if ((seen += counts.get(i)) >= rank)
+                return Math.min(getBucketEnd(i), getMaxNanos());
+        return 0;
+    }
+
+    int getBucketsCount() {
+        return counts.length();
+    }
+
+    long getBucketCount(int index) {
+        return counts.get(index);
+    }
+
+    // the largest value counted in the bucket
+    static long getBucketEnd(int index) {
+        if (index < SUB_BUCKETS)
+            return index;
+        final int shift = (index >>> SUB_BUCKET_BITS) - 1;
+        return ((long) (SUB_BUCKETS + (index & SUB_BUCKETS - 1)) << shift) + (1L << shift) - 1;
+    }
+
+    private static int getIndex(long nanos) {
+        if (nanos < SUB_BUCKETS)
+            return (int) nanos;
+        final int shift = Long.SIZE - 1 - Long.numberOfLeadingZeros(nanos) - SUB_BUCKET_BITS;
+        return (shift + 1) << SUB_BUCKET_BITS | (int) (nanos >>> shift) & SUB_BUCKETS - 1;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "%d samples, avg %.2f ms, p50 %.2f ms, p99 %.2f ms, max %.2f ms", getCount(),
+                getMeanNanos() / 1e6, getPercentileNanos(0.5) / 1e6, getPercentileNanos(0.99) / 1e6, getMaxNanos() / 1e6);
+    }
+}
@@ -1,88 +1,207 @@
 /*
  * Project: Game 2048
- * Last Modified: 7/1/20 10:15 PM
+ * Last Modified: 10/18/26 10:30 PM
  *
- * Copyright (C) 2020 Programmer-Yang_Xun@outlook.com. All Rights Reserved.
+ * Copyright (C) 2026 Programmer-Yang_Xun@outlook.com. All Rights Reserved.
  * Welcome to visit https://GitHub.com/Hydr10n
  */
 
 package com.hydr10n.game2048;
 
+import android.content.DialogInterface;
 import android.os.Bundle;
 import android.text.SpannableString;
 import android.text.method.LinkMovementMethod;
 import android.text.util.Linkify;
+import android.util.Log;
 import android.view.Gravity;
+import android.view.KeyEvent;
 import android.view.Menu;
 import android.view.MenuItem;
 import android.view.View;
-import android.widget.RelativeLayout;
+import android.widget.LinearLayout;
+import android.widget.NumberPicker;
+import android.widget.RadioButton;
+import android.widget.RadioGroup;
 import android.widget.TextView;
+import android.widget.Toast;
 
 import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.databinding.DataBindingUtil;
 
 import com.hydr10n.game2048.databinding.ActivityMainBinding;
+import com.hydr10n.game2048.engine.Direction;
+import com.hydr10n.game2048.engine.GameFrame;
+import com.hydr10n.game2048.engine.MoveListener;
+import com.hydr10n.game2048.engine.NTupleNetwork;
+import com.hydr10n.game2048.engine.PositionTable;
+import com.hydr10n.game2048.engine.Rules;
+import com.hydr10n.game2048.engine.Solver;
 
-import java.util.Random;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public class MainActivity extends AppCompatActivity {
-    private enum Direction {Left, Up, Right, Down}
-
-    private static final int GAME_SAVE_KEY_SCORE_INDEX = 0, GAME_SAVE_KEY_BEST_SCORE_INDEX = 1, GAME_SAVE_KEY_TILES_NumberS_INDEX = 2;
-    private static final float PADDING_SCALE = 0.06f, TILE_SCALE = 1 - 2 * PADDING_SCALE;
-    private static final String[][] GAME_SAVE_KEYS = {
-            {"Layout4Score", "Layout4BestScore", "Layout4TilesNumbers"},
-            {"Layout5Score", "Layout5BestScore", "Layout5TilesNumbers"},
-            {"Layout6Score", "Layout6BestScore", "Layout6TilesNumbers"}
-    };
+    private static final int SOLVER_MAX_DEPTH = 8, SOLVER_CACHE_CAPACITY_BITS = 16, DEFAULT_SIZE = 4, MAX_TEXT_SIZE = 50;
+    private static final long SOLVER_TIME_BUDGET_MILLIS = 100, AUTO_PLAY_INTERVAL_MILLIS = 200, METRICS_INTERVAL_MILLIS = 500;
+    private static final String TAG = "MainActivity";
+    private static final String REPLAYS_DIRECTORY = "replays", METRICS_DIRECTORY = "metrics", NETWORK_FILE = "ntuple.weights",
+            POSITION_TABLE_PREFIX = "positions", POSITION_TABLE_EXTENSION = ".table";
 
     private final ViewModel viewModel = new ViewModel();
+    private final ExecutorService solverExecutor = Executors.newSingleThreadExecutor(), metricsExecutor = Executors.newSingleThreadExecutor();
+    private final Solver solver = new Solver(Solver.Mode.Expectimax, SOLVER_MAX_DEPTH, SOLVER_TIME_BUDGET_MILLIS, Long.MAX_VALUE, SOLVER_CACHE_CAPACITY_BITS, System.nanoTime(),
+            Runtime.getRuntime().availableProcessors());
+    // one move ahead with the n-tuple network in the files directory, if any, for 4 x 4 hints well within a frame
+    private final Solver networkSolver = new Solver(Solver.Mode.Greedy, 1, Long.MAX_VALUE, Long.MAX_VALUE, 1, 0);
+    private final Runnable autoPlayStep = new Runnable() {
+        @Override
+        public void run() {
+            requestSuggestion(true);
+        }
+    };
+    private final Runnable updateMetricsOverlay = new Runnable() {
+        @Override
+        public void run() {
+            metricsOverlay.setText(metricsReport.toText());
+            metricsOverlay.postDelayed(this, METRICS_INTERVAL_MILLIS);
+        }
+    };
+    private final MoveListener moveListener = new MoveListener() {
+        @Override
+        public void onTileMoved(int fromRow, int fromColumn, int toRow, int toColumn) {
+            boardView.moveTile(fromRow, fromColumn, toRow, toColumn);
+        }
 
-    private int tilesCountPerSide, maxTextSize, gameSaveKeyIndex;
-    private float tileFullSideLength;
-    private GameSave gameSave;
-    private RelativeLayout gameLayout;
-    private Tile[][] tiles;
+        @Override
+        public void onTilesMerged(int fromRow1, int fromColumn1, int fromRow2, int fromColumn2, int toRow, int toColumn) {
+            boardView.mergeTiles(fromRow1, fromColumn1, fromRow2, fromColumn2, toRow, toColumn);
+        }
+
+        @Override
+        public void onTileAdded(int row, int column, int exponent) {
+            boardView.addTile(row, column, exponent);
+        }
+    };
+
+    private int selection;
+    private Rules rules;
+    private GameFrame shownFrame;
+    private GameController controller;
+    private BoardView boardView;
+    private MoveQueue moveQueue;
+    private MetricsReport metricsReport;
+    private TextView metricsOverlay;
+    private boolean networkLoaded;    // solverExecutor's
+    private Rules positionTableRules;    // solverExecutor's
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         ActivityMainBinding activityMainBinding = DataBindingUtil.setContentView(this, R.layout.activity_main);
         activityMainBinding.setViewModel(viewModel);
-        gameSave = new GameSave(this, "data");
-        gameLayout = findViewById(R.id.layout_game);
-        gameLayout.setOnTouchListener(new OnSwipeTouchListener(MainActivity.this) {
+        boardView = findViewById(R.id.board);
+        controller = new GameController(this, new GameController.Listener() {
             @Override
-            public void onSwipeLeft() {
-                moveTiles(Direction.Left);
-                saveGameProgress();
+            public void onState(GameController.State state) {
+                render(state);
             }
-
+        });
+        moveQueue = new MoveQueue(boardView, new MoveQueue.Consumer() {
             @Override
-            public void onSwipeUp() {
-                moveTiles(Direction.Up);
-                saveGameProgress();
+            public void onMove(Direction direction, long eventTime) {
+                controller.move(direction, eventTime);
             }
-
+        });
+        final OnSwipeTouchListener swipeListener = new OnSwipeTouchListener(MainActivity.this) {
             @Override
-            public void onSwipeRight() {
-                moveTiles(Direction.Right);
-                saveGameProgress();
+            public void onSwipe(Direction direction, long eventTime) {
+                moveQueue.offer(direction, eventTime);
             }
+        };
+        boardView.setOnTouchListener(swipeListener);
+        metricsOverlay = findViewById(R.id.metrics_overlay);
+        metricsReport = new MetricsReport()
+                .addHistogram("touch->swipe", swipeListener.getRecognitionLatency())
+                .addHistogram("touch->lift", swipeListener.getLiftLatency())
+                .addHistogram("swipe->frame", moveQueue.getFrameLatency())
+                .addHistogram("swipe->model", controller.getModelLatency())
+                .addHistogram("move", controller.getMoveLatency())
+                .addHistogram("journal", controller.getAppendLatency())
+                .addHistogram("save", controller.getSaveLatency())
+                .addHistogram("disk write", controller.getWriteLatency())
+                .addHistogram("draw", boardView.getDrawLatency())
+                .addHistogram("frame interval", boardView.getFrameInterval())
+                .addHistogram("layout", boardView.getLayoutLatency())
+                .addHistogram("tile styles", boardView.getStyleLatency())
+                .addCounter("moves", controller.getMovesCount())
+                .addCounter("saves", controller.getSavesCount())
+                .addCounter("disk writes", controller.getWritesCount())
+                .addCounter("swipes dropped", moveQueue.getDroppedCount())
+                .addCounter("frames", boardView.getFramesCount())
+                .addCounter("janky frames", boardView.getJankyFramesCount())
+                .addCounter("tiles created", boardView.getSpritesCount());
+        loadNetwork();
+    }
 
-            @Override
-            public void onSwipeDown() {
-                moveTiles(Direction.Down);
-                saveGameProgress();
-            }
-        });
+    // arrow keys and the D-pad move the tiles through the same queue as swipes, before focus navigation can take them
+    @Override
+    public boolean dispatchKeyEvent(KeyEvent event) {
+        final Direction direction;
+        switch (event.getKeyCode()) {
+            case KeyEvent.KEYCODE_DPAD_LEFT:
+                direction = Direction.Left;
+                break;
+            case KeyEvent.KEYCODE_DPAD_UP:
+                direction = Direction.Up;
+                break;
+            case KeyEvent.KEYCODE_DPAD_RIGHT:
+                direction = Direction.Right;
+                break;
+            case KeyEvent.KEYCODE_DPAD_DOWN:
+                direction = Direction.Down;
+                break;
+            default:
+                return super.dispatchKeyEvent(event);
+        }
+        if (event.getAction() == KeyEvent.ACTION_DOWN && event.getRepeatCount() == 0)
+            moveQueue.offer(direction, event.getEventTime());
+        return true;
+    }
+
+    @Override
+    protected void onResume() {
+        super.onResume();
+        if (metricsOverlay.getVisibility() == View.VISIBLE)
+            updateMetricsOverlay.run();
+    }
+
+    @Override
+    protected void onPause() {
+        super.onPause();
+        controller.pause();
+        metricsOverlay.removeCallbacks(updateMetricsOverlay);
+        if (BuildConfig.DEBUG)
+            Log.d(TAG, metricsReport.toText());
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        boardView.removeCallbacks(autoPlayStep);
+        solverExecutor.shutdownNow();
+        metricsExecutor.shutdown();
+        solver.shutdown();
+        controller.close();
     }
 
     @Override
     public boolean onCreateOptionsMenu(Menu menu) {
         getMenuInflater().inflate(R.menu.menu_main, menu);
+        menu.findItem(R.id.show_metrics).setChecked(metricsOverlay.getVisibility() == View.VISIBLE);
         return true;
     }
 
@@ -105,247 +224,281 @@ public class MainActivity extends AppCompatActivity {
 
             return true;
         }
+        if (item.getItemId() == R.id.export_replay) {
+            controller.exportReplay(getExternalFilesDir(REPLAYS_DIRECTORY), new GameController.ExportListener() {
+                @Override
+                public void onExported(File file) {
+                    if (file == null)
+                        Toast.makeText(MainActivity.this, R.string.no_replay, Toast.LENGTH_SHORT).show();
+                    else
+                        Toast.makeText(MainActivity.this, getString(R.string.replay_exported, file.getPath()), Toast.LENGTH_LONG).show();
+                }
+            });
+            return true;
+        }
+        if (item.getItemId() == R.id.show_metrics) {
+            item.setChecked(!item.isChecked());
+            metricsOverlay.removeCallbacks(updateMetricsOverlay);
+            metricsOverlay.setVisibility(item.isChecked() ? View.VISIBLE : View.GONE);
+            if (item.isChecked())
+                updateMetricsOverlay.run();
+            return true;
+        }
+        if (item.getItemId() == R.id.export_metrics) {
+            exportMetrics();
+            return true;
+        }
         return super.onOptionsItemSelected(item);
     }
 
     public void selectLayoutButton_onClick(View view) {
-        final int count;
         switch (view.getId()) {
             case R.id.button_layout4:
-                count = 4;
-                maxTextSize = 42;
-                gameSaveKeyIndex = 0;
+                selectShape(Rules.of(4));
                 break;
             case R.id.button_layout5:
-                count = 5;
-                maxTextSize = 40;
-                gameSaveKeyIndex = 1;
+                selectShape(Rules.of(5));
                 break;
             case R.id.button_layout6:
-                count = 6;
-                maxTextSize = 38;
-                gameSaveKeyIndex = 2;
+                selectShape(Rules.of(6));
+                break;
+            case R.id.button_layout_custom:
+                showShapeDialog();
                 break;
             default:
                 throw new IllegalArgumentException();
         }
-        if (tilesCountPerSide == count)
-            return;
-        tilesCountPerSide = count;
-        viewModel.setGameState(GameState.NotStarted);
-        gameLayout.removeAllViews();
-        final int gameLayoutSideLength = Math.min(gameLayout.getWidth(), gameLayout.getHeight());
-        tileFullSideLength = gameLayoutSideLength / (tilesCountPerSide + PADDING_SCALE * 2);
-        final int padding = (int) (tileFullSideLength * PADDING_SCALE);
-        gameLayout.setPadding(padding, padding, padding, padding);
-        viewModel.setScore(gameSave.loadIntData(GAME_SAVE_KEYS[gameSaveKeyIndex][GAME_SAVE_KEY_SCORE_INDEX]));
-        viewModel.setBestScore(gameSave.loadIntData(GAME_SAVE_KEYS[gameSaveKeyIndex][GAME_SAVE_KEY_BEST_SCORE_INDEX]));
-        if (initializeGameLayout())
-            viewModel.setGameState(GameState.Started);
-        viewModel.setLayoutReady(true);
     }
 
     public void newGameButton_onClick(View view) {
-        viewModel.setGameState(GameState.NotStarted);
-        saveGameProgress();
-        startNewGame();
+        controller.newGame();
     }
 
-    private Tile addTile(int row, int column, int tileNumber) {
-        final Tile tile = new Tile(gameLayout, row, column, tileNumber, tileFullSideLength, TILE_SCALE, maxTextSize);
-        tile.updateAppearance();
-        return tile;
+    public void keepGoingButton_onClick(View view) {
+        controller.keepGoing();
     }
 
-    private void addRandomTile() {
-        final Random random = new Random();
-        int i, j;
-        do {
-            i = random.nextInt(tilesCountPerSide);
-            j = random.nextInt(tilesCountPerSide);
-        } while (tiles[i][j] != null);
-        tiles[i][j] = addTile(i, j, 2);
+    public void undoButton_onClick(View view) {
+        controller.undo();
     }
 
-    private void removeAllTiles() {
-        for (int i = 0; i < tilesCountPerSide; i++)
-            for (int j = 0; j < tilesCountPerSide; j++)
-                if (tiles[i][j] != null) {
-                    tiles[i][j].removeSelf();
-                    tiles[i][j] = null;
-                }
+    public void redoButton_onClick(View view) {
+        controller.redo();
     }
 
-    private void moveTile(Cell fromCell, Cell toCell) {
-        final Tile tile = tiles[fromCell.row][fromCell.column];
-        tile.setCell(toCell.row, toCell.column);
-        tiles[fromCell.row][fromCell.column] = null;
-        tiles[toCell.row][toCell.column] = tile;
+    public void hintButton_onClick(View view) {
+        requestSuggestion(false);
     }
 
-    private void mergeTiles(Cell fromCell1, Cell fromCell2, Cell toCell) {
-        final Tile fromTile2 = tiles[fromCell2.row][fromCell2.column];
-        fromTile2.mergeTo(tiles[fromCell1.row][fromCell1.column], toCell);
-        tiles[fromCell1.row][fromCell1.column] = null;
-        tiles[fromCell2.row][fromCell2.column] = null;
-        tiles[toCell.row][toCell.column] = fromTile2;
+    public void autoPlayButton_onClick(View view) {
+        if (viewModel.isAutoPlaying())
+            stopAutoPlay();
+        else {
+            viewModel.setAutoPlaying(true);
+            requestSuggestion(true);
+        }
     }
 
-    private Cell rotateCell(int row, int column, int angle) {
-        if (angle == 0)
-            return new Cell(row, column);
-        int offsetRow = tilesCountPerSide - 1, offsetColumn = offsetRow;
-        if (angle == 90)
-            offsetRow = 0;
-        else if (angle == 270)
-            offsetColumn = 0;
-        final double radians = Math.toRadians(angle);
-        final int cos = (int) Math.cos(radians), sin = (int) Math.sin(radians);
-        return new Cell(offsetRow + column * sin + row * cos, offsetColumn + column * cos - row * sin);
+    // writes JSON and CSV off the main thread; the recording goes on meanwhile
+    private void exportMetrics() {
+        final File directory = getExternalFilesDir(METRICS_DIRECTORY);
+        metricsExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                File file = null;
+                if (directory != null)
+                    try {
+                        file = metricsReport.write(directory);
+                    } catch (IOException ignored) {
+                    }
+                final File exported = file;
+                runOnUiThread(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (exported == null)
+                            Toast.makeText(MainActivity.this, R.string.metrics_not_exported, Toast.LENGTH_SHORT).show();
+                        else
+                            Toast.makeText(MainActivity.this, getString(R.string.metrics_exported, exported.getParent()), Toast.LENGTH_LONG).show();
+                    }
+                });
+            }
+        });
     }
 
-    private boolean isGameOver() {
-        final int[][] directions = {{0, -1}, {-1, 0}, {0, 1}, {1, 0}};
-        for (int i = 0; i < tilesCountPerSide; i++)
-            for (int j = 0; j < tilesCountPerSide; j++) {
-                if (tiles[i][j] == null)
-                    return false;
-                for (int[] direction : directions) {
-                    final int newI = i + direction[0], newJ = j + direction[1];
-                    if (newI >= 0 && newI < tilesCountPerSide && newJ >= 0 && newJ < tilesCountPerSide &&
-                            (tiles[newI][newJ] == null || tiles[i][j].getNumber() == tiles[newI][newJ].getNumber()))
-                        return false;
-                }
-            }
-        return true;
+    private void stopAutoPlay() {
+        boardView.removeCallbacks(autoPlayStep);
+        viewModel.setAutoPlaying(false);
     }
 
-    private void saveGameProgress() {
-        int score = 0;
-        int[][] tilesNumbers = null;
-        if (viewModel.getGameState() == GameState.Started) {
-            score = viewModel.getScore();
-            tilesNumbers = new int[tilesCountPerSide][tilesCountPerSide];
-            for (int i = 0; i < tilesCountPerSide; i++)
-                for (int j = 0; j < tilesCountPerSide; j++)
-                    if (tiles[i][j] != null)
-                        tilesNumbers[i][j] = tiles[i][j].getNumber();
-        }
-        gameSave.saveData(GAME_SAVE_KEYS[gameSaveKeyIndex][GAME_SAVE_KEY_SCORE_INDEX], score);
-        gameSave.saveData(GAME_SAVE_KEYS[gameSaveKeyIndex][GAME_SAVE_KEY_BEST_SCORE_INDEX], Math.max(score, viewModel.getBestScore()));
-        gameSave.saveData(GAME_SAVE_KEYS[gameSaveKeyIndex][GAME_SAVE_KEY_TILES_NumberS_INDEX], tilesNumbers);
+    private void selectShape(Rules rules) {
+        if (this.rules == rules)
+            return;
+        moveQueue.clear();
+        this.rules = rules;
+        stopAutoPlay();
+        viewModel.setGameState(GameState.NotStarted);
+        boardView.setBoardSize(rules.getRows(), rules.getColumns(), MAX_TEXT_SIZE - 2 * Math.max(rules.getRows(), rules.getColumns()));
+        shownFrame = null;
+        selection = controller.select(rules);
+        updateLayoutButtons();
+        viewModel.setLayoutReady(true);
+    }
+
+    private void showShapeDialog() {
+        final NumberPicker rowsPicker = createSizePicker(rules == null ? DEFAULT_SIZE : rules.getRows()),
+                columnsPicker = createSizePicker(rules == null ? DEFAULT_SIZE : rules.getColumns());
+        final TextView times = new TextView(this);
+        times.setText("×");
+        final LinearLayout layout = new LinearLayout(this);
+        layout.setGravity(Gravity.CENTER);
+        layout.addView(rowsPicker);
+        layout.addView(times);
+        layout.addView(columnsPicker);
+        new AlertDialog.Builder(this)
+                .setTitle(R.string.rows_by_columns)
+                .setView(layout)
+                .setPositiveButton(R.string.confirm, new DialogInterface.OnClickListener() {
+                    @Override
+                    public void onClick(DialogInterface dialog, int which) {
+                        selectShape(Rules.of(rowsPicker.getValue(), columnsPicker.getValue()));
+                    }
+                })
+                .setOnDismissListener(new DialogInterface.OnDismissListener() {
+                    @Override
+                    public void onDismiss(DialogInterface dialog) {
+                        updateLayoutButtons();
+                    }
+                })
+                .create().show();
+    }
+
+    private NumberPicker createSizePicker(int value) {
+        final NumberPicker picker = new NumberPicker(this);
+        picker.setMinValue(Rules.MIN_SIZE);
+        picker.setMaxValue(Rules.MAX_SIZE);
+        picker.setValue(value);
+        return picker;
     }
 
-    private boolean loadGameProgress() {
-        final int[][] tilesNumbers = gameSave.loadInt2DData(GAME_SAVE_KEYS[gameSaveKeyIndex][GAME_SAVE_KEY_TILES_NumberS_INDEX]);
-        if (tilesNumbers != null)
-            for (int i = 0; i < tilesCountPerSide; i++)
-                for (int j = 0; j < tilesCountPerSide; j++)
-                    if (tilesNumbers[i][j] != 0)
-                        tiles[i][j] = addTile(i, j, tilesNumbers[i][j]);
-        return tilesNumbers != null;
+    // checks the button of the selected shape, the last one showing it when no other does
+    private void updateLayoutButtons() {
+        final RadioButton customButton = findViewById(R.id.button_layout_custom);
+        final boolean custom = rules != null && (!rules.isSquare() || rules.getRows() < 4 || rules.getRows() > 6);
+        customButton.setText(custom ? getString(R.string.layout_shape, rules.getRows(), rules.getColumns()) : getString(R.string.layout_custom));
+        final RadioGroup radioGroup = findViewById(R.id.radiogroup);
+        if (rules == null)
+            radioGroup.clearCheck();
+        else if (custom)
+            radioGroup.check(R.id.button_layout_custom);
+        else
+            radioGroup.check(rules.getRows() == 4 ? R.id.button_layout4 : rules.getRows() == 5 ? R.id.button_layout5 : R.id.button_layout6);
     }
 
-    private void moveTiles(Direction direction) {
-        if (viewModel.getGameState() != GameState.Started)
+    // states of an earlier selection still on their way are skipped; the board of the one selected now arrives as a Restore
+    private void render(GameController.State state) {
+        if (state.getSelection() != selection)
             return;
-        int angle;
-        switch (direction) {
-            case Left:
-                angle = 0;
-                break;
-            case Up:
-                angle = 90;
-                break;
-            case Right:
-                angle = 180;
+        final GameFrame frame = state.getFrame();
+        switch (frame.getChange()) {
+            case Move:
+                frame.replayEvents(moveListener);
                 break;
-            case Down:
-                angle = 270;
+            case NewGame:
+                boardView.removeAllTiles();
+                frame.replayEvents(moveListener);
                 break;
             default:
-                throw new IllegalArgumentException();
-        }
-        boolean moved = false, won = false;
-        int count = 0;
-        for (int row = 0; row < tilesCountPerSide; row++) {
-            int next = 0;
-            for (int a = 0; a < tilesCountPerSide; a++) {
-                final Cell cell1 = rotateCell(row, a, angle);
-                if (tiles[cell1.row][cell1.column] != null) {
-                    boolean foundSecond = false, merged = true;
-                    for (int b = a + 1; b < tilesCountPerSide; b++) {
-                        final Cell cell2 = rotateCell(row, b, angle);
-                        if (tiles[cell2.row][cell2.column] != null) {
-                            foundSecond = true;
-                            int tileNumber = tiles[cell1.row][cell1.column].getNumber();
-                            if (tileNumber == tiles[cell2.row][cell2.column].getNumber()) {
-                                mergeTiles(cell1, cell2, rotateCell(row, next, angle));
-                                moved = true;
-                                a = b;
-                                tileNumber <<= 1;
-                                viewModel.setScore(tileNumber + viewModel.getScore());
-                                if (tileNumber >= 2048)
-                                    won = true;
-                            } else {
-                                if (a != next) {
-                                    moveTile(cell1, rotateCell(row, next, angle));
-                                    moved = true;
-                                }
-                                if (b != next + 1) {
-                                    moveTile(cell2, rotateCell(row, next + 1, angle));
-                                    moved = true;
-                                }
-                                a = next;
-                                merged = false;
-                            }
-                            next++;
-                            break;
-                        }
-                    }
-                    if (!foundSecond && a > 0) {
-                        if (!merged)
-                            next++;
-                        if (a != next) {
-                            moveTile(cell1, rotateCell(row, next, angle));
-                            moved = true;
-                        }
-                        break;
+                for (int i = 0; i < rules.getRows(); i++)
+                    for (int j = 0; j < rules.getColumns(); j++) {
+                        final int exponent = frame.getExponent(i, j);
+                        if (shownFrame == null ? exponent != 0 : exponent != shownFrame.getExponent(i, j))
+                            boardView.setTile(i, j, exponent);
                     }
-                }
-            }
-            final Cell cell = rotateCell(row, tilesCountPerSide - 1, angle);
-            if (tiles[cell.row][cell.column] != null)
-                count++;
         }
-        final int score = viewModel.getScore();
-        if (score > viewModel.getBestScore())
-            viewModel.setBestScore(score);
-        if (!moved)
-            return;
-        if (won) {
-            viewModel.setGameState(GameState.Won);
+        shownFrame = frame;
+        viewModel.setState(state);
+        if (state.getInputEventTime() != GameController.NO_EVENT_TIME)
+            moveQueue.onShown(state.getInputEventTime());
+    }
+
+    private void requestSuggestion(final boolean autoPlay) {
+        final GameController.State state = viewModel.getState();
+        if (state == null || viewModel.getGameState() != GameState.Started) {
+            if (autoPlay)
+                stopAutoPlay();
             return;
         }
-        if (count < tilesCountPerSide)
-            addRandomTile();
-        if (count >= tilesCountPerSide - 1 && isGameOver())
-            viewModel.setGameState(GameState.Over);
+        final GameFrame frame = state.getFrame();
+        solverExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                final Rules rules = frame.getRules();
+                usePositionTable(rules);
+                final Solver.Result result = (networkLoaded && rules == Rules.of(4) ? networkSolver : solver).search(rules, frame.getBoard());
+                runOnUiThread(new Runnable() {
+                    @Override
+                    public void run() {
+                        onSuggestion(frame, result, autoPlay);
+                    }
+                });
+            }
+        });
+    }
+
+    // mapped, not parsed, so only the pages a hint reads are loaded
+    private void loadNetwork() {
+        final File file = new File(getFilesDir(), NETWORK_FILE);
+        solverExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                if (!file.exists())
+                    return;
+                try {
+                    networkSolver.setEvaluator(NTupleNetwork.load(file, false));
+                    networkLoaded = true;
+                } catch (IOException exception) {
+                    Log.w(TAG, "n-tuple network not loaded", exception);
+                }
+            }
+        });
     }
 
-    private boolean initializeGameLayout() {
-        for (int i = 0; i < tilesCountPerSide; i++)
-            for (int j = 0; j < tilesCountPerSide; j++)
-                addTile(i, j, 0);
-        tiles = new Tile[tilesCountPerSide][tilesCountPerSide];
-        return loadGameProgress();
+    // positions<shape>.table in the files directory, if any, answers book positions before either solver searches
+    private void usePositionTable(Rules rules) {
+        if (rules == positionTableRules)
+            return;
+        positionTableRules = rules;
+        final File file = new File(getFilesDir(), POSITION_TABLE_PREFIX + rules + POSITION_TABLE_EXTENSION);
+        PositionTable positionTable = null;
+        if (file.exists())
+            try {
+                positionTable = PositionTable.load(file);
+            } catch (IOException exception) {
+                Log.w(TAG, "position table not loaded", exception);
+            }
+        solver.setPositionTable(positionTable);
+        networkSolver.setPositionTable(positionTable);
     }
 
-    private void startNewGame() {
-        removeAllTiles();
-        addRandomTile();
-        addRandomTile();
-        viewModel.setScore(0);
-        viewModel.setGameState(GameState.Started);
+    private void onSuggestion(GameFrame frame, Solver.Result result, boolean autoPlay) {
+        if (autoPlay && !viewModel.isAutoPlaying())
+            return;
+        if (frame != viewModel.getState().getFrame()) {
+            if (autoPlay)
+                requestSuggestion(true);
+            return;
+        }
+        final Direction direction = result.getDirection();
+        if (!autoPlay) {
+            Toast.makeText(this, direction == null ? getString(R.string.no_hint) :
+                    getString(R.string.hint_result, direction, result.getNodesPerSecond(), result.getCacheHitRate() * 100), Toast.LENGTH_SHORT).show();
+            return;
+        }
+        if (direction == null) {
+            stopAutoPlay();
+            return;
+        }
+        controller.move(direction, GameController.NO_EVENT_TIME);
+        boardView.postDelayed(autoPlayStep, AUTO_PLAY_INTERVAL_MILLIS);
     }
-}
\ No newline at end of file
+}
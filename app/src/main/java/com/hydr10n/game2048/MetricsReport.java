@@ -0,0 +1,155 @@
+/*
+ * Project: Game 2048
+ * Last Modified: 10/18/26 12:10 PM
+ *
+ * Copyright (C) 2026 Programmer-Yang_Xun@outlook.com. All Rights Reserved.
+ * Welcome to visit https://GitHub.com/Hydr10n
+ */
+
+package com.hydr10n.game2048;
+
+import android.os.Build;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Named LatencyHistograms and counters owned by the parts of the app that record them, read together for the debug overlay
+ * and written as JSON and CSV tagged with the device and build, so runs on different devices and builds can be compared.
+ * Reading never blocks the recording threads.
+ */
+class MetricsReport {
+    private static final double NANOS_PER_MILLI = 1e6;
+    private static final double[] PERCENTILES = {0.5, 0.9, 0.99};
+
+    private final ArrayList<String> histogramNames = new ArrayList<>(), counterNames = new ArrayList<>();
+    private final ArrayList<LatencyHistogram> histograms = new ArrayList<>();
+    private final ArrayList<AtomicLong> counters = new ArrayList<>();
+
+    public MetricsReport addHistogram(String name, LatencyHistogram histogram) {
+        histogramNames.add(name);
+        histograms.add(histogram);
+        return this;
+    }
+
+    public MetricsReport addCounter(String name, AtomicLong counter) {
+        counterNames.add(name);
+        counters.add(counter);
+        return this;
+    }
+
+    // one line per metric, in milliseconds
+    public String toText() {
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < histograms.size(); i++) {
+            final LatencyHistogram histogram = histograms.get(i);
+            builder.append(String.format(Locale.ROOT, "%-14s n %-6d p50 %6.2f p99 %6.2f max %6.2f%n", histogramNames.get(i),
+                    histogram.getCount(), toMillis(histogram.getPercentileNanos(0.5)), toMillis(histogram.getPercentileNanos(0.99)),
+                    toMillis(histogram.getMaxNanos())));
+        }
+        for (int i = 0; i < counters.size(); i++)
+            builder.append(String.format(Locale.ROOT, "%-14s %d%n", counterNames.get(i), counters.get(i).get()));
+        return builder.toString().trim();
+    }
+
+    // the histograms keep their non-empty buckets as [largest value in ns, count] so runs can be merged
+    public String toJson(long timeMillis) {
+        final StringBuilder builder = new StringBuilder("{\n");
+        builder.append("  \"device\": ").append(quote(getDevice())).append(",\n")
+                .append("  \"sdk\": ").append(Build.VERSION.SDK_INT).append(",\n")
+                .append("  \"build\": ").append(quote(getBuild())).append(",\n")
+                .append("  \"time\": ").append(timeMillis).append(",\n")
+                .append("  \"histograms\": {");
+        for (int i = 0; i < histograms.size(); i++) {
+            final LatencyHistogram histogram = histograms.get(i);
+            builder.append(i == 0 ? "\n" : ",\n").append("    ").append(quote(histogramNames.get(i))).append(": {")
+                    .append(String.format(Locale.ROOT, "\"count\": %d, \"mean_ms\": %.3f", histogram.getCount(), toMillis(histogram.getMeanNanos())));
+            for (double percentile : PERCENTILES)
+                builder.append(String.format(Locale.ROOT, ", \"%s_ms\": %.3f", getPercentileName(percentile),
+                        toMillis(histogram.getPercentileNanos(percentile))));
+            builder.append(String.format(Locale.ROOT, ", \"max_ms\": %.3f, \"buckets\": [", toMillis(histogram.getMaxNanos())));
+            boolean first = true;
+            for (int j = 0; j < histogram.getBucketsCount(); j++) {
+                final long count = histogram.getBucketCount(j);
+                if (count == 0)
+                    continue;
+                builder.append(first ? "" : ", ").append('[').append(LatencyHistogram.getBucketEnd(j)).append(", ").append(count).append(']');
+                first = false;
+            }
+            builder.append("]}");
+        }
+        builder.append("\n  },\n  \"counters\": {");
+        for (int i = 0; i < counters.size(); i++)
+            builder.append(i == 0 ? "\n" : ",\n").append("    ").append(quote(counterNames.get(i))).append(": ").append(counters.get(i).get());
+        return builder.append("\n  }\n}\n").toString();
+    }
+
+    // one row per metric, every row tagged with the device and build so files from several runs can be concatenated
+    public String toCsv(long timeMillis) {
+        final StringBuilder builder = new StringBuilder("device,sdk,build,time,metric,count,mean_ms");
+        for (double percentile : PERCENTILES)
+            builder.append(',').append(getPercentileName(percentile)).append("_ms");
+        builder.append(",max_ms\n");
+        final String prefix = csvField(getDevice()) + ',' + Build.VERSION.SDK_INT + ',' + csvField(getBuild()) + ',' + timeMillis + ',';
+        for (int i = 0; i < histograms.size(); i++) {
+            final LatencyHistogram histogram = histograms.get(i);
+            builder.append(prefix).append(csvField(histogramNames.get(i))).append(',').append(histogram.getCount())
+                    .append(String.format(Locale.ROOT, ",%.3f", toMillis(histogram.getMeanNanos())));
+            for (double percentile : PERCENTILES)
+                builder.append(String.format(Locale.ROOT, ",%.3f", toMillis(histogram.getPercentileNanos(percentile))));
+            builder.append(String.format(Locale.ROOT, ",%.3f%n", toMillis(histogram.getMaxNanos())));
+        }
+        for (int i = 0; i < counters.size(); i++) {
+            builder.append(prefix).append(csvField(counterNames.get(i))).append(',').append(counters.get(i).get()).append(',');
+            for (int j = 0; j < PERCENTILES.length; j++)
+                builder.append(',');
+            builder.append(",\n");
+        }
+        return builder.toString();
+    }
+
+    // writes metrics-<time>.json and metrics-<time>.csv into directory; returns the JSON file
+    public File write(File directory) throws IOException {
+        final long timeMillis = System.currentTimeMillis();
+        final File json = new File(directory, "metrics-" + timeMillis + ".json");
+        write(json, toJson(timeMillis));
+        write(new File(directory, "metrics-" + timeMillis + ".csv"), toCsv(timeMillis));
+        return json;
+    }
+
+    private static void write(File file, String text) throws IOException {
+        try (OutputStream stream = new FileOutputStream(file)) {
+            stream.write(text.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private static String getDevice() {
+        return Build.MANUFACTURER + ' ' + Build.MODEL;
+    }
+
+    private static String getBuild() {
+        return BuildConfig.VERSION_NAME + ' ' + BuildConfig.BUILD_TYPE;
+    }
+
+    private static String getPercentileName(double percentile) {
+        return "p" + Math.round(percentile * 100);
+    }
+
+    private static double toMillis(double nanos) {
+        return nanos / NANOS_PER_MILLI;
+    }
+
+    private static String quote(String text) {
+        return '"' + text.replace("\\", "\\\\").replace("\"", "\\\"") + '"';
+    }
+
+    private static String csvField(String text) {
+        return text.indexOf(',') < 0 && text.indexOf('"') < 0 ? text : '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
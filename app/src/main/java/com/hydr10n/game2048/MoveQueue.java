@@ -0,0 +1,106 @@
+/*
+ * Project: Game 2048
+ * Last Modified: 10/18/26 12:10 PM
+ *
+ * Copyright (C) 2026 Programmer-Yang_Xun@outlook.com. All Rights Reserved.
+ * Welcome to visit https://GitHub.com/Hydr10n
+ */
+
+package com.hydr10n.game2048;
+
+import android.os.SystemClock;
+import android.view.View;
+import android.view.ViewTreeObserver;
+
+import com.hydr10n.game2048.engine.Direction;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Swipes between gesture recognition and the engine, at most CAPACITY at a time; a swipe arriving while it is full is dropped.
+ * Input is dispatched at the start of a frame, so draining on that frame's animation callback hands every swipe of the frame
+ * to the consumer, in order, before the frame is drawn. The latency from the event time of a swipe to the start of drawing the
+ * frame that shows its move is measured once the move is reported shown.
+ */
+class MoveQueue {
+    interface Consumer {
+        void onMove(Direction direction, long eventTime);
+    }
+
+    private static final int CAPACITY = 8;
+
+    private final View view;
+    private final Consumer consumer;
+    private final Direction[] directions = new Direction[CAPACITY];
+    private final long[] eventTimes = new long[CAPACITY];
+    private final LatencyHistogram frameLatency = new LatencyHistogram();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final Runnable drain = new Runnable() {
+        @Override
+        public void run() {
+            drain();
+        }
+    };
+
+    private int head, count;
+    private long firstUndrawnEventTime = -1;
+
+    public MoveQueue(View view, Consumer consumer) {
+        this.view = view;
+        this.consumer = consumer;
+        view.getViewTreeObserver().addOnDrawListener(new ViewTreeObserver.OnDrawListener() {
+            @Override
+            public void onDraw() {
+                if (firstUndrawnEventTime != -1) {
+                    frameLatency.record(TimeUnit.MILLISECONDS.toNanos(SystemClock.uptimeMillis() - firstUndrawnEventTime));
+                    firstUndrawnEventTime = -1;
+                }
+            }
+        });
+    }
+
+    // eventTime is in the SystemClock.uptimeMillis() base, as MotionEvent and KeyEvent times are
+    public boolean offer(Direction direction, long eventTime) {
+        if (count == CAPACITY) {
+            droppedCount.incrementAndGet();
+            return false;
+        }
+        final int tail = (head + count) % CAPACITY;
+        directions[tail] = direction;
+        eventTimes[tail] = eventTime;
+        if (count++ == 0)
+            view.postOnAnimation(drain);
+        return true;
+    }
+
+    public void clear() {
+        view.removeCallbacks(drain);
+        count = 0;
+    }
+
+    // the move of the swipe at eventTime changed what the view shows; the next frame drawn ends its latency
+    public void onShown(long eventTime) {
+        if (firstUndrawnEventTime == -1)
+            firstUndrawnEventTime = eventTime;
+    }
+
+    // with the millisecond resolution of event times
+    public LatencyHistogram getFrameLatency() {
+        return frameLatency;
+    }
+
+    public AtomicLong getDroppedCount() {
+        return droppedCount;
+    }
+
+    private void drain() {
+        while (count > 0) {
+            final Direction direction = directions[head];
+            final long eventTime = eventTimes[head];
+            head = (head + 1) % CAPACITY;
+            count--;
+            consumer.onMove(direction, eventTime);
+        }
+    }
+}
@@ -1,68 +1,103 @@
 package com.hydr10n.game2048;
 
 import android.content.Context;
-import android.view.GestureDetector;
-import android.view.GestureDetector.SimpleOnGestureListener;
 import android.view.MotionEvent;
 import android.view.View;
 import android.view.View.OnTouchListener;
+import android.view.ViewConfiguration;
 
-class OnSwipeTouchListener implements OnTouchListener {
-    private class GestureListener extends SimpleOnGestureListener {
-        private static final int SWIPE_THRESHOLD = 100, SWIPE_VELOCITY_THRESHOLD = 100;
+import com.hydr10n.game2048.engine.Direction;
 
-        @Override
-        public boolean onDown(MotionEvent e) {
-            return true;
-        }
+import java.util.concurrent.TimeUnit;
 
-        @Override
-        public boolean onFling(MotionEvent e1, MotionEvent e2, float velocityX, float velocityY) {
-            boolean result = false;
-            try {
-                float diffX = e2.getX() - e1.getX(), diffY = e2.getY() - e1.getY();
-                if (Math.abs(diffX) > Math.abs(diffY)) {
-                    if (Math.abs(diffX) > SWIPE_THRESHOLD && Math.abs(velocityX) > SWIPE_VELOCITY_THRESHOLD) {
-                        if (diffX > 0)
-                            onSwipeRight();
-                        else
-                            onSwipeLeft();
-                        result = true;
-                    }
-                } else if (Math.abs(diffY) > SWIPE_THRESHOLD && Math.abs(velocityY) > SWIPE_VELOCITY_THRESHOLD) {
-                    if (diffY > 0)
-                        onSwipeDown();
-                    else
-                        onSwipeUp();
-                    result = true;
-                }
-            } catch (Exception exception) {
-                exception.printStackTrace();
-            }
-            return result;
-        }
-    }
+/*
+ * Recognizes a swipe while the finger is still moving, as soon as it has gone SWIPE_DISTANCE_DP from where the gesture
+ * started, further along one axis than the other. The finger may then keep going to chain more swipes, each measured from
+ * where the last one was recognized; the same direction twice in a row is not reported, so one long swipe is one move.
+ * Only the first finger down is followed.
+ *
+ * Recognition latency runs from the touch, or the last swipe of the same gesture, to the event recognizing the swipe;
+ * lift latency from the touch to the finger lifting, the earliest a recognizer of flings could have reported it.
+ */
+abstract class OnSwipeTouchListener implements OnTouchListener {
+    private static final int SWIPE_DISTANCE_DP = 24;
 
-    private final GestureDetector gestureDetector;
+    private final float swipeDistance;
+    private final LatencyHistogram recognitionLatency = new LatencyHistogram(), liftLatency = new LatencyHistogram();
+    private int pointerId = MotionEvent.INVALID_POINTER_ID;
+    private float startX, startY;
+    private long downTime, startTime;
+    private Direction lastDirection;
 
     public OnSwipeTouchListener(Context context) {
-        gestureDetector = new GestureDetector(context, new GestureListener());
+        swipeDistance = Math.max(ViewConfiguration.get(context).getScaledTouchSlop(),
+                SWIPE_DISTANCE_DP * context.getResources().getDisplayMetrics().density);
     }
 
     @Override
     public boolean onTouch(View view, MotionEvent event) {
-        return gestureDetector.onTouchEvent(event);
+        switch (event.getActionMasked()) {
+            case MotionEvent.ACTION_DOWN:
+                pointerId = event.getPointerId(0);
+                startX = event.getX();
+                startY = event.getY();
+                downTime = startTime = event.getEventTime();
+                lastDirection = null;
+                return true;
+            case MotionEvent.ACTION_MOVE: {
+                final int index = event.findPointerIndex(pointerId);
+                if (index != -1)
+                    onMove(event.getX(index), event.getY(index), event.getEventTime());
+                return true;
+            }
+            case MotionEvent.ACTION_POINTER_UP:
+                if (event.getPointerId(event.getActionIndex()) == pointerId)
+                    pointerId = MotionEvent.INVALID_POINTER_ID;
+                return true;
+            case MotionEvent.ACTION_UP:
+                if (lastDirection != null)
+                    liftLatency.record(TimeUnit.MILLISECONDS.toNanos(event.getEventTime() - downTime));
+                pointerId = MotionEvent.INVALID_POINTER_ID;
+                return true;
+            case MotionEvent.ACTION_CANCEL:
+                pointerId = MotionEvent.INVALID_POINTER_ID;
+                return true;
+            default:
+                return false;
+        }
     }
 
-    public void onSwipeLeft() {
+    public LatencyHistogram getRecognitionLatency() {
+        return recognitionLatency;
     }
 
-    public void onSwipeUp() {
+    public LatencyHistogram getLiftLatency() {
+        return liftLatency;
     }
 
-    public void onSwipeRight() {
-    }
+    // eventTime: of the event recognizing the swipe, in the SystemClock.uptimeMillis() base
+    public abstract void onSwipe(Direction direction, long eventTime);
 
-    public void onSwipeDown() {
+    private void onMove(float x, float y, long eventTime) {
+        final float diffX = x - startX, diffY = y - startY;
+        final Direction direction;
+        if (Math.abs(diffX) > Math.abs(diffY)) {
+            if (Math.abs(diffX) < swipeDistance)
+                return;
+            direction = diffX > 0 ? Direction.Right : Direction.Left;
+        } else {
+            if (Math.abs(diffY) < swipeDistance)
+                return;
+            direction = diffY > 0 ? Direction.Down : Direction.Up;
+        }
+        final long latency = eventTime - startTime;
+        startX = x;
+        startY = y;
+        startTime = eventTime;
+        if (direction == lastDirection)
+            return;
+        recognitionLatency.record(TimeUnit.MILLISECONDS.toNanos(latency));
+        lastDirection = direction;
+        onSwipe(direction, eventTime);
     }
 }
@@ -0,0 +1,94 @@
+/*
+ * Project: Game 2048
+ * Last Modified: 10/18/26 6:40 AM
+ *
+ * Copyright (C) 2026 Programmer-Yang_Xun@outlook.com. All Rights Reserved.
+ * Welcome to visit https://GitHub.com/Hydr10n
+ */
+
+package com.hydr10n.game2048;
+
+import android.graphics.Color;
+import android.graphics.Paint;
+
+/*
+ * How a tile of one exponent looks at one tile size: colors, text, and the largest text size up to the maximum that fits,
+ * with the baseline offset centering it. Immutable; BoardView builds them once per board size and every tile shares them.
+ * Tiles past 2048 all take the last colors, so any exponent can be drawn.
+ */
+final class TileStyle {
+    static final int CACHED_MAX_EXPONENT = 17;
+    private static final int TILE_FOREGROUND_INDEX = 0, TILE_BACKGROUND_INDEX = 1;
+    private static final float TEXT_WIDTH_SCALE = 0.8f, TEXT_HEIGHT_SCALE = 0.6f;
+    private static final int[][] TILE_COLORS = {    // [0]: text color; [1]: background color
+            {0, Color.parseColor("#cdc1b4")},                                        // empty
+            {Color.parseColor("#776e65"), Color.parseColor("#eee4da")},    // 2
+            {Color.parseColor("#776e65"), Color.parseColor("#ede0c8")},    // 4
+            {Color.parseColor("#f9f6f2"), Color.parseColor("#f2b179")},    // 8
+            {Color.parseColor("#f9f6f2"), Color.parseColor("#f59563")},    // 16
+            {Color.parseColor("#f9f6f2"), Color.parseColor("#f67c5f")},    // 32
+            {Color.parseColor("#f9f6f2"), Color.parseColor("#f65e3b")},    // 64
+            {Color.parseColor("#f9f6f2"), Color.parseColor("#edcf72")},    // 128
+            {Color.parseColor("#f9f6f2"), Color.parseColor("#edcc61")},    // 256
+            {Color.parseColor("#f9f6f2"), Color.parseColor("#edc850")},    // 512
+            {Color.parseColor("#f9f6f2"), Color.parseColor("#edc53f")},    // 1024
+            {Color.parseColor("#f9f6f2"), Color.parseColor("#edc22e")},    // 2048
+            {Color.parseColor("#f9f6f2"), Color.parseColor("#3c3a32")}     // 4096 and above
+    };
+
+    private final int textColor, backgroundColor;
+    private final String text;
+    private final float textSize, baselineOffset;
+
+    private TileStyle(int textColor, int backgroundColor, String text, float textSize, float baselineOffset) {
+        this.textColor = textColor;
+        this.backgroundColor = backgroundColor;
+        this.text = text;
+        this.textSize = textSize;
+        this.baselineOffset = baselineOffset;
+    }
+
+    // indexed by exponent, up to CACHED_MAX_EXPONENT or exponent if larger; textPaint only has its text size changed
+    static TileStyle[] createAll(int maxExponent, Paint textPaint, float tileSideLength, float maxTextSize) {
+        final TileStyle[] styles = new TileStyle[Math.max(maxExponent, CACHED_MAX_EXPONENT) + 1];
+        for (int exponent = 1; exponent < styles.length; exponent++)
+            styles[exponent] = create(exponent, textPaint, tileSideLength, maxTextSize);
+        return styles;
+    }
+
+    static int getEmptyCellColor() {
+        return TILE_COLORS[0][TILE_BACKGROUND_INDEX];
+    }
+
+    private static TileStyle create(int exponent, Paint textPaint, float tileSideLength, float maxTextSize) {
+        final int[] colors = TILE_COLORS[Math.min(exponent, TILE_COLORS.length - 1)];
+        final String text = String.valueOf(1L << exponent);
+        textPaint.setTextSize(maxTextSize);
+        final float textSize = Math.min(Math.min(maxTextSize, tileSideLength * TEXT_HEIGHT_SCALE),
+                maxTextSize * tileSideLength * TEXT_WIDTH_SCALE / textPaint.measureText(text));
+        textPaint.setTextSize(textSize);
+        final Paint.FontMetrics fontMetrics = textPaint.getFontMetrics();
+        return new TileStyle(colors[TILE_FOREGROUND_INDEX], colors[TILE_BACKGROUND_INDEX], text, textSize,
+                -(fontMetrics.ascent + fontMetrics.descent) / 2);
+    }
+
+    public int getTextColor() {
+        return textColor;
+    }
+
+    public int getBackgroundColor() {
+        return backgroundColor;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public float getTextSize() {
+        return textSize;
+    }
+
+    public float getBaselineOffset() {
+        return baselineOffset;
+    }
+}
@@ -1,8 +1,8 @@
 /*
  * Project: Game 2048
- * Last Modified: 6/18/20 4:05 PM
+ * Last Modified: 10/18/26 7:45 PM
  *
- * Copyright (C) 2020 Programmer-Yang_Xun@outlook.com. All Rights Reserved.
+ * Copyright (C) 2026 Programmer-Yang_Xun@outlook.com. All Rights Reserved.
  * Welcome to visit https://GitHub.com/Hydr10n
  */
 
@@ -12,9 +12,10 @@ import androidx.databinding.BaseObservable;
 import androidx.databinding.Bindable;
 
 public class ViewModel extends BaseObservable {
-    private boolean layoutReady;
-    private int score, bestScore;
+    private boolean layoutReady, autoPlaying, canUndo, canRedo;
+    private long score, bestScore;
     private GameState gameState = GameState.NotStarted;
+    private GameController.State state;
 
     @Bindable
     public boolean isLayoutReady() {
@@ -27,21 +28,51 @@ public class ViewModel extends BaseObservable {
     }
 
     @Bindable
-    public int getScore() {
+    public boolean isAutoPlaying() {
+        return autoPlaying;
+    }
+
+    public void setAutoPlaying(boolean autoPlaying) {
+        this.autoPlaying = autoPlaying;
+        notifyPropertyChanged(BR.autoPlaying);
+    }
+
+    @Bindable
+    public boolean isCanUndo() {
+        return canUndo;
+    }
+
+    public void setCanUndo(boolean canUndo) {
+        this.canUndo = canUndo;
+        notifyPropertyChanged(BR.canUndo);
+    }
+
+    @Bindable
+    public boolean isCanRedo() {
+        return canRedo;
+    }
+
+    public void setCanRedo(boolean canRedo) {
+        this.canRedo = canRedo;
+        notifyPropertyChanged(BR.canRedo);
+    }
+
+    @Bindable
+    public long getScore() {
         return score;
     }
 
-    public void setScore(int score) {
+    public void setScore(long score) {
         this.score = score;
         notifyPropertyChanged(BR.score);
     }
 
     @Bindable
-    public int getBestScore() {
+    public long getBestScore() {
         return bestScore;
     }
 
-    public void setBestScore(int bestScore) {
+    public void setBestScore(long bestScore) {
         this.bestScore = bestScore;
         notifyPropertyChanged(BR.bestScore);
     }
@@ -55,4 +86,18 @@ public class ViewModel extends BaseObservable {
         this.gameState = gameState;
         notifyPropertyChanged(BR.gameState);
     }
+
+    // the state shown last, or null
+    public GameController.State getState() {
+        return state;
+    }
+
+    public void setState(GameController.State state) {
+        this.state = state;
+        setScore(state.getFrame().getScore());
+        setBestScore(state.getBestScore());
+        setGameState(state.getGameState());
+        setCanUndo(state.canUndo());
+        setCanRedo(state.canRedo());
+    }
 }
\ No newline at end of file
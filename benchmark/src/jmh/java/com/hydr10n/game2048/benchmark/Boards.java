@@ -0,0 +1,54 @@
+/*
+ * Project: Game 2048
+ * Last Modified: 10/18/26 11:30 AM
+ *
+ * Copyright (C) 2026 Programmer-Yang_Xun@outlook.com. All Rights Reserved.
+ * Welcome to visit https://GitHub.com/Hydr10n
+ */
+
+package com.hydr10n.game2048.benchmark;
+
+import com.hydr10n.game2048.engine.Rules;
+
+import java.util.Random;
+
+final class Boards {
+    static final int COUNT = 1024, MASK = COUNT - 1;
+
+    private Boards() {
+    }
+
+    // tiles up to 2^maxExponent, each cell filled with the given probability
+    static long[][] random(Rules rules, double density, int maxExponent, long seed) {
+        final Random random = new Random(seed);
+        final long[][] boards = new long[COUNT][];
+        for (int i = 0; i < COUNT; i++) {
+            boards[i] = rules.newBoard();
+            for (int row = 0; row < rules.getRows(); row++)
+                for (int column = 0; column < rules.getColumns(); column++)
+                    if (random.nextDouble() < density)
+                        rules.setExponent(boards[i], row, column, 1 + random.nextInt(maxExponent));
+        }
+        return boards;
+    }
+
+    // full boards without any possible merge, except for emptyCount cells cleared at random
+    static long[][] nearlyFull(Rules rules, int emptyCount, long seed) {
+        final Random random = new Random(seed);
+        final long[][] boards = new long[COUNT][];
+        for (int i = 0; i < COUNT; i++) {
+            boards[i] = rules.newBoard();
+            for (int row = 0; row < rules.getRows(); row++)
+                for (int column = 0; column < rules.getColumns(); column++)
+                    rules.setExponent(boards[i], row, column, 1 + (row + column) % 2 + 2 * ((row + random.nextInt(4)) % 4));
+            for (int cleared = 0; cleared < emptyCount; ) {
+                final int row = random.nextInt(rules.getRows()), column = random.nextInt(rules.getColumns());
+                if (rules.getExponent(boards[i], row, column) != 0) {
+                    rules.setExponent(boards[i], row, column, 0);
+                    cleared++;
+                }
+            }
+        }
+        return boards;
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Project: Game 2048
+ * Last Modified: 10/18/26 2:40 PM
+ *
+ * Copyright (C) 2026 Programmer-Yang_Xun@outlook.com. All Rights Reserved.
+ * Welcome to visit https://GitHub.com/Hydr10n
+ */
+
+package com.hydr10n.game2048.benchmark;
+
+import com.hydr10n.game2048.engine.Direction;
+import com.hydr10n.game2048.engine.Evaluator;
+import com.hydr10n.game2048.engine.HeuristicEvaluator;
+import com.hydr10n.game2048.engine.NTupleNetwork;
+import com.hydr10n.game2048.engine.Rules;
+import com.hydr10n.game2048.engine.Solver;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+// 4 x 4 boards valued by the heuristic or an untrained n-tuple network, whose weights cost the same to read either way
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class EvaluatorBenchmark {
+    @Param({"heuristic", "compact", "standard"})
+    String evaluator;
+
+    private final Rules rules = Rules.of(4);
+    private Evaluator instance;
+    private Solver solver;
+    private long[][] boards;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        instance = evaluator.equals("heuristic") ? new HeuristicEvaluator()
+                : new NTupleNetwork(evaluator.equals("compact") ? NTupleNetwork.COMPACT_TUPLES : NTupleNetwork.STANDARD_TUPLES);
+        solver = new Solver(Solver.Mode.Greedy, 1, Long.MAX_VALUE, Long.MAX_VALUE, 1, 0);
+        solver.setEvaluator(instance);
+        boards = Boards.random(rules, 0.7, 11, rules.getCode());
+    }
+
+    @Benchmark
+    public float evaluate() {
+        return instance.evaluate(rules, boards[index++ & Boards.MASK]);
+    }
+
+    // the whole of a greedy hint, as the app asks for one
+    @Benchmark
+    public Direction chooseGreedily() {
+        return solver.search(rules, boards[index++ & Boards.MASK]).getDirection();
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Project: Game 2048
+ * Last Modified: 10/18/26 10:30 PM
+ *
+ * Copyright (C) 2026 Programmer-Yang_Xun@outlook.com. All Rights Reserved.
+ * Welcome to visit https://GitHub.com/Hydr10n
+ */
+
+package com.hydr10n.game2048.benchmark;
+
+import com.hydr10n.game2048.engine.Rules;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class GameOverBenchmark {
+    // one shape per representation: Bitboard, RowTable lines (square and not) and 5-bit sliding lines of up to 10 cells
+    @Param({"4", "3", "3x4", "5", "6", "8", "10", "3x10"})
+    String shape;
+
+    // 0: the game is over, so every cell is examined
+    @Param({"0", "1"})
+    int emptyCount;
+
+    private Rules rules;
+    private long[][] boards;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        rules = Rules.parse(shape);
+        boards = Boards.nearlyFull(rules, emptyCount, rules.getCode());
+    }
+
+    @Benchmark
+    public boolean isGameOver() {
+        return rules.isGameOver(boards[index++ & Boards.MASK]);
+    }
+}
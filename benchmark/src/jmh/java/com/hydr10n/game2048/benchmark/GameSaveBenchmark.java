@@ -0,0 +1,98 @@
+/*
+ * Project: Game 2048
+ * Last Modified: 10/18/26 11:30 AM
+ *
+ * Copyright (C) 2026 Programmer-Yang_Xun@outlook.com. All Rights Reserved.
+ * Welcome to visit https://GitHub.com/Hydr10n
+ */
+
+package com.hydr10n.game2048.benchmark;
+
+import com.hydr10n.game2048.engine.GridCodec;
+import com.hydr10n.game2048.engine.Rules;
+import com.hydr10n.game2048.engine.Snapshot;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * The string encoding the SharedPreferences saves used against the binary Snapshot, and the synced write of a snapshot
+ * file that GameSave now does off the main thread (before, a commit() of the preferences ran on it after every swipe).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class GameSaveBenchmark {
+    @Param({"4", "5", "6"})
+    int size;
+
+    private int[][] numbers;
+    private String encoded;
+    private Snapshot snapshot;
+    private byte[] bytes;
+    private File file, temporaryFile;
+
+    @Setup
+    public void setUp() {
+        final Rules rules = Rules.of(size);
+        final long[] board = Boards.random(rules, 0.8, 11, size)[0];
+        numbers = new int[size][size];
+        for (int row = 0; row < size; row++)
+            for (int column = 0; column < size; column++) {
+                final int exponent = rules.getExponent(board, row, column);
+                numbers[row][column] = exponent == 0 ? 0 : 1 << exponent;
+            }
+        encoded = GridCodec.encode(numbers);
+        snapshot = new Snapshot(rules, 20000, 40000, board);
+        bytes = snapshot.toBytes();
+        file = new File(System.getProperty("java.io.tmpdir"), "game" + size + ".bin");
+        temporaryFile = new File(file.getPath() + ".new");
+    }
+
+    @TearDown
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Benchmark
+    public String encodeString() {
+        return GridCodec.encode(numbers);
+    }
+
+    @Benchmark
+    public int[][] decodeString() {
+        return GridCodec.decode(encoded);
+    }
+
+    @Benchmark
+    public byte[] encodeSnapshot() {
+        return snapshot.toBytes();
+    }
+
+    @Benchmark
+    public Snapshot decodeSnapshot() throws IOException {
+        return Snapshot.fromBytes(bytes);
+    }
+
+    // what AtomicFile does: write a new file, fsync it and rename it over the old one
+    @Benchmark
+    public boolean writeSnapshotSynced() throws IOException {
+        try (FileOutputStream stream = new FileOutputStream(temporaryFile)) {
+            stream.write(snapshot.toBytes());
+            stream.getFD().sync();
+        }
+        return temporaryFile.renameTo(file);
+    }
+}
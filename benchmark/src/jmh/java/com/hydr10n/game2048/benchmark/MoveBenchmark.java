@@ -0,0 +1,52 @@
+/*
+ * Project: Game 2048
+ * Last Modified: 10/18/26 10:30 PM
+ *
+ * Copyright (C) 2026 Programmer-Yang_Xun@outlook.com. All Rights Reserved.
+ * Welcome to visit https://GitHub.com/Hydr10n
+ */
+
+package com.hydr10n.game2048.benchmark;
+
+import com.hydr10n.game2048.engine.Direction;
+import com.hydr10n.game2048.engine.Rules;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MoveBenchmark {
+    // one shape per representation: Bitboard, RowTable lines (square and not) and 5-bit sliding lines of up to 10 cells
+    @Param({"4", "3", "3x4", "5", "6", "8", "10", "3x10"})
+    String shape;
+
+    @Param({"Left", "Up", "Right", "Down"})
+    Direction direction;
+
+    private Rules rules;
+    private long[][] boards;
+    private long[] result;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        rules = Rules.parse(shape);
+        boards = Boards.random(rules, 0.6, 10, rules.getCode());
+        result = rules.newBoard();
+    }
+
+    @Benchmark
+    public long move() {
+        return rules.move(boards[index++ & Boards.MASK], result, direction);
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Project: Game 2048
+ * Last Modified: 10/18/26 7:30 PM
+ *
+ * Copyright (C) 2026 Programmer-Yang_Xun@outlook.com. All Rights Reserved.
+ * Welcome to visit https://GitHub.com/Hydr10n
+ */
+
+package com.hydr10n.game2048.benchmark;
+
+import com.hydr10n.game2048.engine.Direction;
+import com.hydr10n.game2048.engine.Rules;
+import com.hydr10n.game2048.engine.Solver;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.TimeUnit;
+
+// an exact expectimax hint at a fixed depth with 1 to 8 workers, for scaling; every parallelism suggests the same moves
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ParallelSolverBenchmark {
+    private static final int DEPTH = 4, CACHE_CAPACITY_BITS = 20;
+
+    @Param({"1", "2", "4", "8"})
+    int parallelism;
+
+    @Param({"4", "6"})
+    int size;
+
+    private Rules rules;
+    private Solver solver;
+    private long[][] boards;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        rules = Rules.of(size);
+        solver = new Solver(Solver.Mode.Expectimax, DEPTH, Long.MAX_VALUE, Long.MAX_VALUE, CACHE_CAPACITY_BITS, 0, parallelism);
+        boards = Boards.random(rules, 0.6, 10, rules.getCode());
+    }
+
+    @TearDown
+    public void tearDown() {
+        solver.shutdown();
+    }
+
+    @Benchmark
+    public Direction search() {
+        return solver.search(rules, boards[index++ & Boards.MASK]).getDirection();
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Project: Game 2048
+ * Last Modified: 10/18/26 11:30 AM
+ *
+ * Copyright (C) 2026 Programmer-Yang_Xun@outlook.com. All Rights Reserved.
+ * Welcome to visit https://GitHub.com/Hydr10n
+ */
+
+package com.hydr10n.game2048.benchmark;
+
+import com.hydr10n.game2048.engine.Game;
+import com.hydr10n.game2048.engine.Rules;
+import com.hydr10n.game2048.engine.SpawnRule;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SpawnBenchmark {
+    @Param({"4", "5", "6"})
+    int size;
+
+    @Param({"1", "2"})
+    int emptyCount;
+
+    private Game game;
+    private long[][] boards;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        game = new Game(Rules.of(size), size, SpawnRule.STANDARD);
+        boards = Boards.nearlyFull(Rules.of(size), emptyCount, size);
+    }
+
+    // includes restoring the board, measured alone by setBoard
+    @Benchmark
+    public Game addRandomTile() {
+        game.setBoard(boards[index++ & Boards.MASK]);
+        game.addRandomTile(null);
+        return game;
+    }
+
+    @Benchmark
+    public Game setBoard() {
+        game.setBoard(boards[index++ & Boards.MASK]);
+        return game;
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Project: Game 2048
+ * Last Modified: 10/18/26 11:30 AM
+ *
+ * Copyright (C) 2026 Programmer-Yang_Xun@outlook.com. All Rights Reserved.
+ * Welcome to visit https://GitHub.com/Hydr10n
+ */
+
+package com.hydr10n.game2048.benchmark;
+
+import com.hydr10n.game2048.engine.Direction;
+import com.hydr10n.game2048.engine.Game;
+import com.hydr10n.game2048.engine.MoveListener;
+import com.hydr10n.game2048.engine.Rules;
+import com.hydr10n.game2048.engine.SpawnRule;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+// the whole move of a swipe as MainActivity runs it, tile trajectories included; run with -prof gc to count allocations
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SwipeBenchmark {
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    @Param({"4", "5", "6"})
+    int size;
+
+    private Game game;
+    private MoveListener listener;
+    private int index;
+
+    @Setup
+    public void setUp(final Blackhole blackhole) {
+        game = new Game(Rules.of(size), size, SpawnRule.STANDARD);
+        listener = new MoveListener() {
+            @Override
+            public void onTileMoved(int fromRow, int fromColumn, int toRow, int toColumn) {
+                blackhole.consume(toRow + toColumn);
+            }
+
+            @Override
+            public void onTilesMerged(int fromRow1, int fromColumn1, int fromRow2, int fromColumn2, int toRow, int toColumn) {
+                blackhole.consume(toRow + toColumn);
+            }
+
+            @Override
+            public void onTileAdded(int row, int column, int exponent) {
+                blackhole.consume(exponent);
+            }
+        };
+        game.newGame(listener);
+    }
+
+    @Benchmark
+    public boolean move() {
+        if (game.isOver() || game.isWon())
+            game.newGame(listener);
+        return game.move(DIRECTIONS[index++ & 3], listener);
+    }
+}
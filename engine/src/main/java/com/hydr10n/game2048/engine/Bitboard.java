@@ -0,0 +1,182 @@
+/*
+ * Project: Game 2048
+ * Last Modified: 10/18/26 10:30 PM
+ *
+ * Copyright (C) 2026 Programmer-Yang_Xun@outlook.com. All Rights Reserved.
+ * Welcome to visit https://GitHub.com/Hydr10n
+ */
+
+package com.hydr10n.game2048.engine;
+
+/*
+ * 4 x 4 board packed into a long: cell (row, column) holds its log2 exponent in the 4 bits at 16 * row + 4 * column.
+ * Tiles of 15 do not merge here; Rules moves a board that makes one out of the long.
+ */
+public final class Bitboard {
+    public static final int SIZE = 4, SYMMETRIES = 8;
+    private static final int ROW_BITS = SIZE * RowTable.CELL_BITS, ROW_MASK = (1 << ROW_BITS) - 1;
+    private static final long CELL_LOW_BITS = 0x1111111111111111L;
+    private static final Direction[] DIRECTIONS = Direction.values();
+    private static final char[] ROW_LEFT = new char[1 << ROW_BITS], ROW_RIGHT = new char[1 << ROW_BITS];
+    private static final int[] ROW_SCORE = new int[1 << ROW_BITS];
+
+    static {
+        for (int row = 0; row <= ROW_MASK; row++) {
+            ROW_LEFT[row] = (char) RowTable.slideLeft(row);
+            ROW_RIGHT[row] = (char) RowTable.reverse((int) RowTable.slideLeft(RowTable.reverse(row, SIZE)), SIZE);
+            ROW_SCORE[row] = RowTable.getScore(row);
+        }
+    }
+
+    private Bitboard() {
+    }
+
+    public static long move(long board, Direction direction) {
+        switch (direction) {
+            case Left:
+                return moveLeft(board);
+            case Up:
+                return moveUp(board);
+            case Right:
+                return moveRight(board);
+            case Down:
+                return moveDown(board);
+            default:
+                throw new IllegalArgumentException();
+        }
+    }
+
+    public static long moveLeft(long board) {
+        return (long) ROW_LEFT[(int) board & ROW_MASK]
+                | (long) ROW_LEFT[(int) (board >>> ROW_BITS) & ROW_MASK] << ROW_BITS
+                | (long) ROW_LEFT[(int) (board >>> 2 * ROW_BITS) & ROW_MASK] << 2 * ROW_BITS
+                | (long) ROW_LEFT[(int) (board >>> 3 * ROW_BITS)] << 3 * ROW_BITS;
+    }
+
+    public static long moveRight(long board) {
+        return (long) ROW_RIGHT[(int) board & ROW_MASK]
+                | (long) ROW_RIGHT[(int) (board >>> ROW_BITS) & ROW_MASK] << ROW_BITS
+                | (long) ROW_RIGHT[(int) (board >>> 2 * ROW_BITS) & ROW_MASK] << 2 * ROW_BITS
+                | (long) ROW_RIGHT[(int) (board >>> 3 * ROW_BITS)] << 3 * ROW_BITS;
+    }
+
+    public static long moveUp(long board) {
+        return transpose(moveLeft(transpose(board)));
+    }
+
+    public static long moveDown(long board) {
+        return transpose(moveRight(transpose(board)));
+    }
+
+    public static long transpose(long board) {
+        final long a = board & 0xf0f00f0ff0f00f0fL | (board & 0x0000f0f00000f0f0L) << 12 | (board & 0x0f0f00000f0f0000L) >>> 12;
+        return a & 0xff00ff0000ff00ffL | (a & 0x00ff00ff00000000L) >>> 24 | (a & 0x00000000ff00ff00L) << 24;
+    }
+
+    // the first row last
+    public static long flipRows(long board) {
+        return board >>> 48 | board >>> 16 & 0xffff0000L | (board & 0xffff0000L) << 16 | board << 48;
+    }
+
+    // the first column last
+    public static long mirrorColumns(long board) {
+        board = (board & 0xff00ff00ff00ff00L) >>> 8 | (board & 0x00ff00ff00ff00ffL) << 8;
+        return (board & 0xf0f0f0f0f0f0f0f0L) >>> 4 | (board & 0x0f0f0f0f0f0f0f0fL) << 4;
+    }
+
+    // symmetry: bit 2 transposes, then bit 1 flips the rows and bit 0 mirrors the columns, so 8 values cover every rotation and mirror
+    public static long transform(long board, int symmetry) {
+        if ((symmetry & 4) != 0)
+            board = transpose(board);
+        if ((symmetry & 2) != 0)
+            board = flipRows(board);
+        return (symmetry & 1) != 0 ? mirrorColumns(board) : board;
+    }
+
+    // the least of the board's 8 symmetric images, the same for all of them
+    public static long canonicalize(long board) {
+        final long flipped = flipRows(board), transposed = transpose(board), transposedFlipped = flipRows(transposed);
+        return Math.min(Math.min(Math.min(board, mirrorColumns(board)), Math.min(flipped, mirrorColumns(flipped))),
+                Math.min(Math.min(transposed, mirrorColumns(transposed)), Math.min(transposedFlipped, mirrorColumns(transposedFlipped))));
+    }
+
+    // a symmetry transforming the board into canonicalize(board)
+    public static int getCanonicalSymmetry(long board) {
+        final long canonical = canonicalize(board);
+        int symmetry = 0;
+        while (transform(board, symmetry) != canonical)
+            symmetry++;
+        return symmetry;
+    }
+
+    // where a move goes on the board transformed by the symmetry
+    public static Direction transform(Direction direction, int symmetry) {
+        int ordinal = direction.ordinal();
+        if ((symmetry & 4) != 0)
+            ordinal ^= 1;    // Left and Up, Right and Down
+        if ((symmetry & 2) != 0 && (ordinal & 1) != 0 || (symmetry & 1) != 0 && (ordinal & 1) == 0)
+            ordinal ^= 2;    // Up and Down, or Left and Right
+        return DIRECTIONS[ordinal];
+    }
+
+    // the move on the original board that the transformed board's move comes from
+    public static Direction untransform(Direction direction, int symmetry) {
+        int ordinal = direction.ordinal();
+        if ((symmetry & 2) != 0 && (ordinal & 1) != 0 || (symmetry & 1) != 0 && (ordinal & 1) == 0)
+            ordinal ^= 2;
+        if ((symmetry & 4) != 0)
+            ordinal ^= 1;
+        return DIRECTIONS[ordinal];
+    }
+
+    public static int getScore(long board) {
+        return ROW_SCORE[(int) board & ROW_MASK] + ROW_SCORE[(int) (board >>> ROW_BITS) & ROW_MASK]
+                + ROW_SCORE[(int) (board >>> 2 * ROW_BITS) & ROW_MASK] + ROW_SCORE[(int) (board >>> 3 * ROW_BITS)];
+    }
+
+    public static int countEmpty(long board) {
+        return Long.bitCount(getEmptyCells(board));
+    }
+
+    // lowest bit of every empty cell set
+    public static long getEmptyCells(long board) {
+        board |= board >>> 2;
+        board |= board >>> 1;
+        return ~board & CELL_LOW_BITS;
+    }
+
+    // whether a cell holds 15, the largest exponent a nibble holds: two of those merge into a tile the long has no room for
+    static boolean hasMaxExponent(long board) {
+        return (board & board >>> 1 & board >>> 2 & board >>> 3 & CELL_LOW_BITS) != 0;
+    }
+
+    /*
+     * Shift of the index-th lowest cell of a mask holding one bit per cell, found by halving rather than bit by bit.
+     * Once the window is no wider than a cell, it holds the cell alone, so any cell width of at least 4 bits works.
+     */
+    public static int selectCell(long cells, int index) {
+        int shift = 0;
+        for (int width = Long.SIZE / 2; width >= RowTable.CELL_BITS; width >>= 1) {
+            final int count = Long.bitCount(cells & (1L << width) - 1);
+            if (index >= count) {
+                index -= count;
+                cells >>>= width;
+                shift += width;
+            }
+        }
+        return shift + Long.numberOfTrailingZeros(cells);
+    }
+
+    public static int getExponent(long board, int row, int column) {
+        return (int) (board >>> getShift(row, column)) & RowTable.CELL_MASK;
+    }
+
+    public static long setExponent(long board, int row, int column, int exponent) {
+        final int shift = getShift(row, column);
+        return board & ~((long) RowTable.CELL_MASK << shift) | (long) exponent << shift;
+    }
+
+    private static int getShift(int row, int column) {
+        return (row * SIZE + column) * RowTable.CELL_BITS;
+    }
+}
@@ -0,0 +1,11 @@
+/*
+ * Project: Game 2048
+ * Last Modified: 10/17/26 9:12 AM
+ *
+ * Copyright (C) 2026 Programmer-Yang_Xun@outlook.com. All Rights Reserved.
+ * Welcome to visit https://GitHub.com/Hydr10n
+ */
+
+package com.hydr10n.game2048.engine;
+
+public enum Direction {Left, Up, Right, Down}
@@ -0,0 +1,178 @@
+/*
+ * Project: Game 2048
+ * Last Modified: 10/18/26 10:30 PM
+ *
+ * Copyright (C) 2026 Programmer-Yang_Xun@outlook.com. All Rights Reserved.
+ * Welcome to visit https://GitHub.com/Hydr10n
+ */
+
+package com.hydr10n.game2048.engine;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Single-threaded expectimax over packed boards with scratch boards per depth, so searching allocates nothing.
+ * Exact mode never prunes unlikely spawns and only reuses cached values of the same depth,
+ * so the value of a node does not depend on the order nodes are searched in.
+ */
+final class Expectimax {
+    static final class Budget {
+        private final long deadline, nodeLimit;
+        private final AtomicLong nodes = new AtomicLong();
+        private volatile boolean exhausted;
+
+        Budget(long deadline, long nodeLimit) {
+            this.deadline = deadline;
+            this.nodeLimit = nodeLimit;
+        }
+
+        boolean isExhausted() {
+            return exhausted;
+        }
+
+        void spend(long count) {
+            if (nodes.addAndGet(count) > nodeLimit || System.nanoTime() > deadline)
+                exhausted = true;
+        }
+    }
+
+    static final int CACHE_MIN_DEPTH = 2;
+    private static final int BUDGET_CHECK_INTERVAL = 1024;
+    private static final float MIN_PROBABILITY = 0.0001f;
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private final Rules rules;
+    private final Evaluator evaluator;
+    private final float twoProbability, fourProbability;
+    private final TranspositionTable transpositionTable;
+    private final boolean exact;
+    private final long[][] moveBoards, spawnBoards, canonicalBoards;
+
+    private Budget budget;
+    private long nodes, cacheLookups, cacheHits, unspentNodes;
+    private float rootValue;
+
+    Expectimax(Rules rules, Evaluator evaluator, SpawnRule spawnRule, TranspositionTable transpositionTable, boolean exact, int maxDepth) {
+        this.rules = rules;
+        this.evaluator = evaluator;
+        fourProbability = spawnRule.getFourProbability();
+        twoProbability = 1 - fourProbability;
+        this.transpositionTable = transpositionTable;
+        this.exact = exact;
+        moveBoards = new long[maxDepth + 1][];
+        spawnBoards = new long[maxDepth + 1][];
+        canonicalBoards = new long[maxDepth + 1][];
+        for (int i = 0; i <= maxDepth; i++) {
+            moveBoards[i] = rules.newBoard();
+            spawnBoards[i] = rules.newBoard();
+            canonicalBoards[i] = rules.newBoard();
+        }
+    }
+
+    void reset(Budget budget) {
+        this.budget = budget;
+        nodes = cacheLookups = cacheHits = unspentNodes = 0;
+    }
+
+    long getNodes() {
+        return nodes;
+    }
+
+    long getCacheLookups() {
+        return cacheLookups;
+    }
+
+    long getCacheHits() {
+        return cacheHits;
+    }
+
+    // of the move searchRoot() chose last
+    float getRootValue() {
+        return rootValue;
+    }
+
+    Direction searchRoot(long[] board, int depth) {
+        final int legalDirections = rules.getLegalDirections(board);
+        Direction best = null;
+        float bestValue = -1;
+        for (Direction direction : DIRECTIONS) {
+            if ((legalDirections & 1 << direction.ordinal()) == 0)
+                continue;
+            rules.move(board, moveBoards[depth], direction);
+            nodes++;
+            final float value = searchChance(moveBoards[depth], depth - 1, 1);
+            if (value > bestValue) {
+                bestValue = value;
+                best = direction;
+            }
+        }
+        rootValue = bestValue;
+        return best;
+    }
+
+    // value of a board right after a move, averaged over every possible spawn
+    float searchChance(long[] board, int depth, float probability) {
+        if (depth == 0 || !exact && probability < MIN_PROBABILITY)
+            return evaluator.evaluate(rules, board);
+        final long key = depth >= CACHE_MIN_DEPTH ? TranspositionTable.getKey(rules, board) : 0;
+        if (depth >= CACHE_MIN_DEPTH) {
+            final float value = lookUp(key, depth);
+            if (!Float.isNaN(value))
+                return value;
+            // search the image the value is cached for, so it is the same whichever image gets here first
+            if (TranspositionTable.isCanonical(rules, board)) {
+                canonicalBoards[depth][0] = key;
+                board = canonicalBoards[depth];
+            }
+        }
+        final int emptyCount = rules.countEmpty(board);
+        final long[] spawned = spawnBoards[depth];
+        final float cellProbability = probability / emptyCount;
+        System.arraycopy(board, 0, spawned, 0, board.length);
+        float total = 0;
+        for (int word = 0; word < board.length; word++) {
+            for (long cells = rules.getEmptyCells(board, word); cells != 0; cells &= cells - 1) {
+                final long cell = cells & -cells;
+                if (twoProbability > 0) {
+                    spawned[word] = board[word] | cell;
+                    total += twoProbability * searchMax(spawned, depth, cellProbability * twoProbability);
+                }
+                if (fourProbability > 0) {
+                    spawned[word] = board[word] | cell << 1;
+                    total += fourProbability * searchMax(spawned, depth, cellProbability * fourProbability);
+                }
+            }
+            spawned[word] = board[word];
+        }
+        final float value = total / emptyCount;
+        if (depth >= CACHE_MIN_DEPTH && !budget.isExhausted())
+            transpositionTable.put(key, depth, value);
+        return value;
+    }
+
+    float searchMax(long[] board, int depth, float probability) {
+        nodes++;
+        if (++unspentNodes == BUDGET_CHECK_INTERVAL) {
+            budget.spend(unspentNodes);
+            unspentNodes = 0;
+        }
+        if (budget.isExhausted())
+            return 0;
+        final int legalDirections = rules.getLegalDirections(board);
+        float best = 0;
+        for (Direction direction : DIRECTIONS)
+            if ((legalDirections & 1 << direction.ordinal()) != 0) {
+                rules.move(board, moveBoards[depth], direction);
+                best = Math.max(best, searchChance(moveBoards[depth], depth - 1, probability));
+            }
+        return best;
+    }
+
+    float lookUp(long key, int depth) {
+        cacheLookups++;
+        final float value = transpositionTable.get(key, depth, exact);
+        if (!Float.isNaN(value))
+            cacheHits++;
+        return value;
+    }
+}
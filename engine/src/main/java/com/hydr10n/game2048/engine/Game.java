@@ -0,0 +1,225 @@
+/*
+ * Project: Game 2048
+ * Last Modified: 10/18/26 1:20 PM
+ *
+ * Copyright (C) 2026 Programmer-Yang_Xun@outlook.com. All Rights Reserved.
+ * Welcome to visit https://GitHub.com/Hydr10n
+ */
+
+package com.hydr10n.game2048.engine;
+
+import java.util.Random;
+
+/*
+ * A game stops, won, once a tile reaches WINNING_EXPONENT, unless the player chose to keep going: the winning move has spawned
+ * like any other, so keepGoing() only lets moves continue, until no move is left.
+ */
+public class Game {
+    public static final int WINNING_EXPONENT = 11, NO_SPAWN = -1;
+    private static final int UNKNOWN_DIRECTIONS = -1;
+
+    private final int columns;
+    private final Rules rules;
+    private final Random random;
+    private final SpawnRule spawnRule;
+
+    private boolean won, over, keepingGoing;
+    private long score;
+    private int legalDirections = UNKNOWN_DIRECTIONS, lastSpawnCell = NO_SPAWN, lastSpawnExponent;
+    private long[] board, nextBoard;
+
+    public Game(int size) {
+        this(Rules.of(size));
+    }
+
+    public Game(Rules rules) {
+        this(rules, new Random(), SpawnRule.STANDARD);
+    }
+
+    // spawns are reproducible from the seed and the moves alone
+    public Game(Rules rules, long seed, SpawnRule spawnRule) {
+        this(rules, new Random(seed), spawnRule);
+    }
+
+    public Game(Rules rules, Random random, SpawnRule spawnRule) {
+        this.rules = rules;
+        this.random = random;
+        this.spawnRule = spawnRule;
+        columns = rules.getColumns();
+        board = rules.newBoard();
+        nextBoard = rules.newBoard();
+    }
+
+    public Rules getRules() {
+        return rules;
+    }
+
+    public SpawnRule getSpawnRule() {
+        return spawnRule;
+    }
+
+    public long getScore() {
+        return score;
+    }
+
+    public void setScore(long score) {
+        this.score = score;
+    }
+
+    // stopped at the winning tile; false again once keeping going
+    public boolean isWon() {
+        return won;
+    }
+
+    public boolean isKeepingGoing() {
+        return keepingGoing;
+    }
+
+    // after a win, or before one to play on past it straight away; a new game stops at the winning tile again
+    public void keepGoing() {
+        keepingGoing = true;
+        won = false;
+        over = getLegalDirections() == 0;
+    }
+
+    public boolean isOver() {
+        return over;
+    }
+
+    // see Rules.getLegalDirections; kept from the end of the last move until the board is edited
+    public int getLegalDirections() {
+        if (legalDirections == UNKNOWN_DIRECTIONS)
+            legalDirections = rules.getLegalDirections(board);
+        return legalDirections;
+    }
+
+    public boolean canMove(Direction direction) {
+        return (getLegalDirections() & 1 << direction.ordinal()) != 0;
+    }
+
+    // row * columns + column of the tile the last move spawned, or NO_SPAWN
+    public int getLastSpawnCell() {
+        return lastSpawnCell;
+    }
+
+    public int getLastSpawnExponent() {
+        return lastSpawnExponent;
+    }
+
+    public long[] getBoard() {
+        return board.clone();
+    }
+
+    public void getBoard(long[] destination) {
+        System.arraycopy(board, 0, destination, 0, board.length);
+    }
+
+    public void setBoard(long[] source) {
+        System.arraycopy(source, 0, board, 0, board.length);
+        legalDirections = UNKNOWN_DIRECTIONS;
+    }
+
+    // back to an earlier position, e.g. one from History
+    public void restore(long[] source, long score) {
+        setBoard(source);
+        this.score = score;
+        won = !keepingGoing && rules.getMaxExponent(board) >= WINNING_EXPONENT;
+        over = !won && getLegalDirections() == 0;
+        lastSpawnCell = NO_SPAWN;
+    }
+
+    public int getExponent(int row, int column) {
+        return rules.getExponent(board, row, column);
+    }
+
+    public void setExponent(int row, int column, int exponent) {
+        rules.setExponent(board, row, column, exponent);
+        legalDirections = UNKNOWN_DIRECTIONS;
+    }
+
+    public void clear() {
+        for (int i = 0; i < board.length; i++)
+            board[i] = 0;
+        score = 0;
+        won = over = keepingGoing = false;
+        legalDirections = UNKNOWN_DIRECTIONS;
+    }
+
+    public void newGame(MoveListener listener) {
+        clear();
+        addRandomTile(listener);
+        addRandomTile(listener);
+    }
+
+    // plays exactly like new Game(size, seed, spawnRule) would
+    public void newGame(long seed, MoveListener listener) {
+        random.setSeed(seed);
+        newGame(listener);
+    }
+
+    public boolean move(Direction direction, MoveListener listener) {
+        if (!canMove(direction))
+            return false;
+        final long gained = rules.move(board, nextBoard, direction);
+        lastSpawnCell = NO_SPAWN;
+        if (listener != null)
+            for (int line = 0, linesCount = rules.getLinesCount(direction); line < linesCount; line++)
+                traceLine(direction, line, listener);
+        final long[] temp = board;
+        board = nextBoard;
+        nextBoard = temp;
+        score += gained;
+        legalDirections = UNKNOWN_DIRECTIONS;
+        final int emptyCount = rules.countEmpty(board);
+        if (emptyCount > 0)
+            addRandomTile(emptyCount, listener);
+        won = !keepingGoing && rules.getMaxExponent(board) >= WINNING_EXPONENT;
+        over = !won && getLegalDirections() == 0;
+        return true;
+    }
+
+    public void addRandomTile(MoveListener listener) {
+        addRandomTile(rules.countEmpty(board), listener);
+    }
+
+    private void addRandomTile(int emptyCount, MoveListener listener) {
+        final int cell = rules.getEmptyCell(board, random.nextInt(emptyCount)), row = cell / columns, column = cell % columns,
+                exponent = spawnRule.nextExponent(random);
+        setExponent(row, column, exponent);
+        lastSpawnCell = cell;
+        lastSpawnExponent = exponent;
+        if (listener != null)
+            listener.onTileAdded(row, column, exponent);
+    }
+
+    // replays the slide of one line on the board before the move, reporting where every tile goes
+    private void traceLine(Direction direction, int line, MoveListener listener) {
+        int next = 0, pending = -1, pendingExponent = 0;
+        for (int i = 0, length = rules.getLineLength(direction); i < length; i++) {
+            final int exponent = getExponent(rules.getLineRow(direction, line, i), rules.getLineColumn(direction, line, i));
+            if (exponent == 0)
+                continue;
+            if (exponent == pendingExponent && exponent < rules.getExponentLimit()) {
+                listener.onTilesMerged(rules.getLineRow(direction, line, pending), rules.getLineColumn(direction, line, pending),
+                        rules.getLineRow(direction, line, i), rules.getLineColumn(direction, line, i),
+                        rules.getLineRow(direction, line, next), rules.getLineColumn(direction, line, next));
+                next++;
+                pending = -1;
+                pendingExponent = 0;
+            } else {
+                if (pending != -1)
+                    reportMove(direction, line, pending, next++, listener);
+                pending = i;
+                pendingExponent = exponent;
+            }
+        }
+        if (pending != -1)
+            reportMove(direction, line, pending, next, listener);
+    }
+
+    private void reportMove(Direction direction, int line, int from, int to, MoveListener listener) {
+        if (from != to)
+            listener.onTileMoved(rules.getLineRow(direction, line, from), rules.getLineColumn(direction, line, from),
+                    rules.getLineRow(direction, line, to), rules.getLineColumn(direction, line, to));
+    }
+}
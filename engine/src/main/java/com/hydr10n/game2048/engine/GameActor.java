@@ -0,0 +1,173 @@
+/*
+ * Project: Game 2048
+ * Last Modified: 10/18/26 9:00 PM
+ *
+ * Copyright (C) 2026 Programmer-Yang_Xun@outlook.com. All Rights Reserved.
+ * Welcome to visit https://GitHub.com/Hydr10n
+ */
+
+package com.hydr10n.game2048.engine;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/*
+ * Owns a Game and is its only writer. Commands may be submitted from any thread: they go into a lock-free inbox and are run
+ * one at a time in submission order by a drain task on the executor, never two at once even if the executor has several
+ * threads. After each command that changed the game a GameFrame is published, both to the listener, on the drain's thread,
+ * and as the latest frame, readable from any thread. The same commands in the same order give the same frames.
+ * A command that throws fails only its own drain; the commands after it still run, on a new drain.
+ */
+public final class GameActor {
+    public interface Command {
+        // runs on the actor's thread; tiles the command reports to listener become the frame's events; null publishes nothing
+        GameFrame.Change execute(Game game, MoveListener listener);
+    }
+
+    public interface Listener {
+        void onFrame(GameFrame frame);
+    }
+
+    public interface Loader {
+        // runs on the actor's thread
+        Game load();
+    }
+
+    private static final Command[] MOVES = new Command[Direction.values().length];
+
+    static {
+        for (final Direction direction : Direction.values())
+            MOVES[direction.ordinal()] = new Command() {
+                @Override
+                public GameFrame.Change execute(Game game, MoveListener listener) {
+                    return game.move(direction, listener) ? GameFrame.Change.Move : null;
+                }
+            };
+    }
+
+    private final Executor executor;
+    private final Listener listener;
+    private final ConcurrentLinkedQueue<Command> inbox = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final Runnable drain = new Runnable() {
+        @Override
+        public void run() {
+            drain();
+        }
+    };
+    private final MoveListener recorder = new MoveListener() {
+        @Override
+        public void onTileMoved(int fromRow, int fromColumn, int toRow, int toColumn) {
+            record(GameFrame.encodeMoved(fromRow * columns + fromColumn, toRow * columns + toColumn));
+        }
+
+        @Override
+        public void onTilesMerged(int fromRow1, int fromColumn1, int fromRow2, int fromColumn2, int toRow, int toColumn) {
+            record(GameFrame.encodeMerged(fromRow1 * columns + fromColumn1, fromRow2 * columns + fromColumn2, toRow * columns + toColumn));
+        }
+
+        @Override
+        public void onTileAdded(int row, int column, int exponent) {
+            record(GameFrame.encodeAdded(row * columns + column, exponent));
+        }
+    };
+
+    private Game game;
+    private int columns;
+    private int[] events = new int[64];
+    private int eventsCount;
+    private long version;
+    private volatile GameFrame frame;
+
+    // listener may be null
+    public GameActor(Game game, Executor executor, Listener listener) {
+        this.game = game;
+        this.executor = executor;
+        this.listener = listener;
+        columns = game.getRules().getColumns();
+        frame = new GameFrame(version++, GameFrame.Change.Restore, game, new int[0]);
+    }
+
+    public void submit(Command command) {
+        inbox.offer(command);
+        if (scheduled.compareAndSet(false, true))
+            executor.execute(drain);
+    }
+
+    public void move(Direction direction) {
+        submit(MOVES[direction.ordinal()]);
+    }
+
+    public void newGame(final long seed) {
+        submit(new Command() {
+            @Override
+            public GameFrame.Change execute(Game game, MoveListener listener) {
+                game.newGame(seed, listener);
+                return GameFrame.Change.NewGame;
+            }
+        });
+    }
+
+    public void restore(long[] board, final long score) {
+        final long[] source = board.clone();
+        submit(new Command() {
+            @Override
+            public GameFrame.Change execute(Game game, MoveListener listener) {
+                game.restore(source, score);
+                return GameFrame.Change.Restore;
+            }
+        });
+    }
+
+    // continues with the game the loader returns, e.g. one of another size, publishing it as a Restore
+    public void load(final Loader loader) {
+        submit(new Command() {
+            @Override
+            public GameFrame.Change execute(Game game, MoveListener listener) {
+                GameActor.this.game = loader.load();
+                columns = GameActor.this.game.getRules().getColumns();
+                return GameFrame.Change.Restore;
+            }
+        });
+    }
+
+    // the frame published last
+    public GameFrame getFrame() {
+        return frame;
+    }
+
+    private void drain() {
+        try {
+            do {
+                Command command;
+                while ((command = inbox.poll()) != null)
+                    execute(command);
+                scheduled.set(false);
+            } while (!inbox.isEmpty() && scheduled.compareAndSet(false, true));
+        } catch (Throwable throwable) {
+            // otherwise scheduled would stay set and no later submit() would start a drain
+            scheduled.set(false);
+            if (!inbox.isEmpty() && scheduled.compareAndSet(false, true))
+                executor.execute(drain);
+            throw throwable;
+        }
+    }
+
+    private void execute(Command command) {
+        eventsCount = 0;
+        final GameFrame.Change change = command.execute(game, recorder);
+        if (change == null)
+            return;
+        frame = new GameFrame(version++, change, game, Arrays.copyOf(events, eventsCount));
+        if (listener != null)
+            listener.onFrame(frame);
+    }
+
+    private void record(int event) {
+        if (eventsCount == events.length)
+            events = Arrays.copyOf(events, events.length * 2);
+        events[eventsCount++] = event;
+    }
+}
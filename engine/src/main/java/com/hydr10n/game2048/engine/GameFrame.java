@@ -0,0 +1,112 @@
+/*
+ * Project: Game 2048
+ * Last Modified: 10/18/26 1:20 PM
+ *
+ * Copyright (C) 2026 Programmer-Yang_Xun@outlook.com. All Rights Reserved.
+ * Welcome to visit https://GitHub.com/Hydr10n
+ */
+
+package com.hydr10n.game2048.engine;
+
+/*
+ * Immutable state of a Game as a GameActor published it, with the tile events of the change that led to it packed one int
+ * each, so a renderer on another thread can animate the change and then read the board.
+ */
+public final class GameFrame {
+    public enum Change {
+        Move,       // the events turn the previous frame's board into this one
+        NewGame,    // the board was cleared, then the events added its tiles
+        Restore     // the board was replaced without events, e.g. by undo or loading
+    }
+
+    private static final int TYPE_MOVED = 0, TYPE_MERGED = 1, TYPE_ADDED = 2, FIELD_BITS = 8, FIELD_MASK = (1 << FIELD_BITS) - 1;
+
+    private final long version;
+    private final Change change;
+    private final Rules rules;
+    private final int columns, legalDirections;
+    private final long score;
+    private final boolean won, over;
+    private final long[] board;
+    private final int[] events;
+
+    GameFrame(long version, Change change, Game game, int[] events) {
+        this.version = version;
+        this.change = change;
+        rules = game.getRules();
+        columns = rules.getColumns();
+        score = game.getScore();
+        legalDirections = game.getLegalDirections();
+        won = game.isWon();
+        over = game.isOver();
+        board = game.getBoard();
+        this.events = events;
+    }
+
+    // counts the frames a GameActor published before this one
+    public long getVersion() {
+        return version;
+    }
+
+    public Change getChange() {
+        return change;
+    }
+
+    public Rules getRules() {
+        return rules;
+    }
+
+    public long getScore() {
+        return score;
+    }
+
+    public int getLegalDirections() {
+        return legalDirections;
+    }
+
+    public boolean isWon() {
+        return won;
+    }
+
+    public boolean isOver() {
+        return over;
+    }
+
+    public long[] getBoard() {
+        return board.clone();
+    }
+
+    public int getExponent(int row, int column) {
+        return rules.getExponent(board, row, column);
+    }
+
+    // reports the events of the change again, in their original order
+    public void replayEvents(MoveListener listener) {
+        for (int event : events) {
+            final int first = event >>> FIELD_BITS & FIELD_MASK, second = event >>> 2 * FIELD_BITS & FIELD_MASK,
+                    third = event >>> 3 * FIELD_BITS;
+            switch (event & FIELD_MASK) {
+                case TYPE_MOVED:
+                    listener.onTileMoved(first / columns, first % columns, second / columns, second % columns);
+                    break;
+                case TYPE_MERGED:
+                    listener.onTilesMerged(first / columns, first % columns, second / columns, second % columns, third / columns, third % columns);
+                    break;
+                default:
+                    listener.onTileAdded(first / columns, first % columns, second);
+            }
+        }
+    }
+
+    static int encodeMoved(int from, int to) {
+        return TYPE_MOVED | from << FIELD_BITS | to << 2 * FIELD_BITS;
+    }
+
+    static int encodeMerged(int from1, int from2, int to) {
+        return TYPE_MERGED | from1 << FIELD_BITS | from2 << 2 * FIELD_BITS | to << 3 * FIELD_BITS;
+    }
+
+    static int encodeAdded(int cell, int exponent) {
+        return TYPE_ADDED | cell << FIELD_BITS | exponent << 2 * FIELD_BITS;
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * Project: Game 2048
+ * Last Modified: 10/17/26 8:47 PM
+ *
+ * Copyright (C) 2026 Programmer-Yang_Xun@outlook.com. All Rights Reserved.
+ * Welcome to visit https://GitHub.com/Hydr10n
+ */
+
+package com.hydr10n.game2048.engine;
+
+// tile numbers as "2,0,4;0,8,2;..."; an empty string stands for no grid
+public final class GridCodec {
+    private static final String ROW_DELIMITER = ";", COLUMN_DELIMITER = ",";
+
+    private GridCodec() {
+    }
+
+    public static String encode(int[][] data) {
+        final StringBuilder stringBuilder = new StringBuilder();
+        if (data != null)
+            for (int i = 0; i < data.length; i++) {
+                for (int j = 0; j < data[i].length; j++)
+                    stringBuilder.append(data[i][j]).append(j == data[i].length - 1 ? "" : COLUMN_DELIMITER);
+                stringBuilder.append(i == data.length - 1 ? "" : ROW_DELIMITER);
+            }
+        return stringBuilder.toString();
+    }
+
+    public static int[][] decode(String rawData) {
+        if (rawData.equals(""))
+            return null;
+        final String[] strings = rawData.split(ROW_DELIMITER);
+        final int[][] data = new int[strings.length][];
+        for (int i = 0; i < strings.length; i++) {
+            final String[] temp = strings[i].split(COLUMN_DELIMITER);
+            data[i] = new int[temp.length];
+            for (int j = 0; j < temp.length; j++)
+                data[i][j] = Integer.parseInt(temp[j]);
+        }
+        return data;
+    }
+}
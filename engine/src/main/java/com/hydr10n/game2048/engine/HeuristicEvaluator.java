@@ -0,0 +1,86 @@
+/*
+ * Project: Game 2048
+ * Last Modified: 10/18/26 10:30 PM
+ *
+ * Copyright (C) 2026 Programmer-Yang_Xun@outlook.com. All Rights Reserved.
+ * Welcome to visit https://GitHub.com/Hydr10n
+ */
+
+package com.hydr10n.game2048.engine;
+
+/*
+ * Rewards empty cells, pending merges and monotonic lines, and penalizes large tiles spread over the board.
+ * Every row and column is scored on its own, so 4-wide lines are looked up in a precomputed table.
+ */
+public class HeuristicEvaluator implements Evaluator {
+    private static final float LOST_PENALTY = 200000, EMPTY_WEIGHT = 270, MERGES_WEIGHT = 700,
+            MONOTONICITY_POWER = 4, MONOTONICITY_WEIGHT = 47, SUM_POWER = 3.5f, SUM_WEIGHT = 11;
+    private static final int MAX_EXPONENT = (1 << RowTable.WIDE_CELL_BITS) - 1;
+    private static final float[] MONOTONICITY_TERMS = new float[MAX_EXPONENT + 1], SUM_TERMS = new float[MAX_EXPONENT + 1];
+    private static final float[] LINE4_VALUES = new float[1 << Bitboard.SIZE * RowTable.CELL_BITS];
+
+    static {
+        for (int exponent = 0; exponent <= MAX_EXPONENT; exponent++) {
+            MONOTONICITY_TERMS[exponent] = (float) Math.pow(exponent, MONOTONICITY_POWER);
+            SUM_TERMS[exponent] = (float) Math.pow(exponent, SUM_POWER);
+        }
+        for (int line = 0; line < LINE4_VALUES.length; line++)
+            LINE4_VALUES[line] = evaluateLine(line, Bitboard.SIZE, RowTable.CELL_BITS);
+    }
+
+    @Override
+    public float evaluate(Rules rules, long[] board) {
+        final int rows = rules.getRows(), columns = rules.getColumns();
+        if (rules.isBitboard(board))
+            return evaluate(board[0]);
+        final Rules layout = rules.getLayout(board);
+        final int cellBits = layout.getCellBits();
+        float value = 0;
+        for (int row = 0; row < rows; row++)
+            value += evaluateLine(layout.getRow(board, row), columns, cellBits);
+        for (int column = 0; column < columns; column++)
+            value += evaluateLine(layout.getColumn(board, column), rows, cellBits);
+        return value;
+    }
+
+    public float evaluate(long board) {
+        return evaluateRows(board) + evaluateRows(Bitboard.transpose(board));
+    }
+
+    private static float evaluateRows(long board) {
+        return LINE4_VALUES[(int) board & 0xffff] + LINE4_VALUES[(int) (board >>> 16) & 0xffff]
+                + LINE4_VALUES[(int) (board >>> 32) & 0xffff] + LINE4_VALUES[(int) (board >>> 48)];
+    }
+
+    private static float evaluateLine(long line, int width, int cellBits) {
+        final int mask = (1 << cellBits) - 1;
+        int empty = 0, merges = 0, previous = 0, counter = 0;
+        float sum = 0, monotonicityLeft = 0, monotonicityRight = 0;
+        for (int i = 0; i < width; i++) {
+            final int exponent = (int) (line >>> i * cellBits) & mask;
+            sum += SUM_TERMS[exponent];
+            if (exponent == 0)
+                empty++;
+            else {
+                if (exponent == previous)
+                    counter++;
+                else if (counter > 0) {
+                    merges += 1 + counter;
+                    counter = 0;
+                }
+                previous = exponent;
+            }
+            if (i > 0) {
+                final int last = (int) (line >>> (i - 1) * cellBits) & mask;
+                if (last > exponent)
+                    monotonicityLeft += MONOTONICITY_TERMS[last] - MONOTONICITY_TERMS[exponent];
+                else
+                    monotonicityRight += MONOTONICITY_TERMS[exponent] - MONOTONICITY_TERMS[last];
+            }
+        }
+        if (counter > 0)
+            merges += 1 + counter;
+        return LOST_PENALTY + EMPTY_WEIGHT * empty + MERGES_WEIGHT * merges
+                - MONOTONICITY_WEIGHT * Math.min(monotonicityLeft, monotonicityRight) - SUM_WEIGHT * sum;
+    }
+}
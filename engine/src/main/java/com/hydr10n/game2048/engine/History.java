@@ -0,0 +1,192 @@
+/*
+ * Project: Game 2048
+ * Last Modified: 10/18/26 10:30 PM
+ *
+ * Copyright (C) 2026 Programmer-Yang_Xun@outlook.com. All Rights Reserved.
+ * Welcome to visit https://GitHub.com/Hydr10n
+ */
+
+package com.hydr10n.game2048.engine;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/*
+ * Undo/redo positions in ring buffers sized by a memory budget, the oldest dropped first. On boards up to 4 x 4 every
+ * step is a packed board and a score; larger boards keep a keyframe every KEYFRAME_INTERVAL steps and only the two-byte
+ * MoveJournal record of each step in between, replayed from the keyframe when the step is visited.
+ */
+public final class History {
+    private static final int KEYFRAME_INTERVAL = 32, MAGIC = 0x48535433;    // "HST3": boards in the cell layout of Rules, long scores
+
+    private final Rules rules;
+    private final int wordCount, capacity;
+    private final boolean keyframed;
+    private final long[] boards;    // [slot * wordCount + word], one slot per step or per keyframe
+    private final long[] scores;    // [slot]
+    private final short[] records;  // [step % capacity], the move leading to each step when keyframed
+
+    private long[] board, nextBoard;
+    private long first, current, last;  // step numbers counted since reset
+    private long score;
+
+    public History(Rules rules, int memoryBudgetBytes) {
+        this.rules = rules;
+        wordCount = rules.getWordCount();
+        keyframed = rules.getCellsCount() > Bitboard.SIZE * Bitboard.SIZE;
+        final int stateBytes = (wordCount + 1) * Long.BYTES;
+        if (keyframed) {
+            final int keyframesCount = Math.max(1, memoryBudgetBytes / (stateBytes + KEYFRAME_INTERVAL * Short.BYTES));
+            capacity = keyframesCount * KEYFRAME_INTERVAL;
+            boards = new long[keyframesCount * wordCount];
+            scores = new long[keyframesCount];
+            records = new short[capacity];
+        } else {
+            capacity = Math.max(2, memoryBudgetBytes / stateBytes);
+            boards = new long[capacity * wordCount];
+            scores = new long[capacity];
+            records = null;
+        }
+        board = rules.newBoard();
+        nextBoard = rules.newBoard();
+    }
+
+    public void reset(long[] board, long score) {
+        first = current = last = 0;
+        setState(board, score);
+        store(0);
+    }
+
+    // after a move: the position it led to replaces everything that could have been redone
+    public void push(long[] board, long score, Direction direction, int spawnCell, int spawnExponent) {
+        setState(board, score);
+        push(MoveJournal.encodeRecord(direction, spawnCell, spawnExponent));
+    }
+
+    public boolean canUndo() {
+        return current > first;
+    }
+
+    public boolean canRedo() {
+        return current < last;
+    }
+
+    public boolean undo() {
+        if (!canUndo())
+            return false;
+        load(--current);
+        return true;
+    }
+
+    public boolean redo() {
+        if (!canRedo())
+            return false;
+        load(++current);
+        return true;
+    }
+
+    // the position undo or redo moved to
+    public void getBoard(long[] destination) {
+        System.arraycopy(board, 0, destination, 0, wordCount);
+    }
+
+    public long getScore() {
+        return score;
+    }
+
+    // shape (Rules.getCode()), steps count, redo count, the oldest position, then a board and score (up to 4 x 4) or a move record per later step
+    public byte[] toBytes() {
+        final int count = (int) (last - first + 1), stateBytes = (wordCount + 1) * Long.BYTES, stepBytes = keyframed ? Short.BYTES : stateBytes;
+        final ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES * 4 + stateBytes + (count - 1) * stepBytes);
+        buffer.putInt(MAGIC).putInt(rules.getCode()).putInt(count).putInt((int) (last - current));
+        for (long step = first; step <= last; step++)
+            if (step == first || !keyframed) {
+                final int slot = getSlot(step);
+                for (int word = 0; word < wordCount; word++)
+                    buffer.putLong(boards[slot * wordCount + word]);
+                buffer.putLong(scores[slot]);
+            } else
+                buffer.putShort(records[(int) (step % capacity)]);
+        return buffer.array();
+    }
+
+    // null if the bytes are not the history of a board of this shape; the oldest steps are dropped if the budget is smaller now
+    public static History fromBytes(Rules rules, int memoryBudgetBytes, byte[] bytes) {
+        final History history = new History(rules, memoryBudgetBytes);
+        final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        final int redoCount;
+        try {
+            if (buffer.getInt() != MAGIC || buffer.getInt() != rules.getCode())
+                return null;
+            final int count = buffer.getInt();
+            redoCount = buffer.getInt();
+            if (count < 1 || redoCount < 0 || redoCount >= count)
+                return null;
+            for (int step = 0; step < count; step++) {
+                if (step == 0 || !history.keyframed) {
+                    for (int word = 0; word < history.wordCount; word++)
+                        history.nextBoard[word] = buffer.getLong();
+                    final long score = buffer.getLong();
+                    if (step == 0)
+                        history.reset(history.nextBoard, score);
+                    else {
+                        history.setState(history.nextBoard, score);
+                        history.push(0);
+                    }
+                    continue;
+                }
+                final int record = buffer.getShort() & 0xffff;
+                final long gained = MoveJournal.applyRecord(rules, history.board, history.nextBoard, record);
+                if (gained == Rules.NO_MOVE)
+                    return null;
+                history.setState(history.nextBoard, history.score + gained);
+                history.push(record);
+            }
+        } catch (BufferUnderflowException exception) {
+            return null;
+        }
+        history.current = Math.max(history.first, history.last - redoCount);
+        history.load(history.current);
+        return history;
+    }
+
+    private void setState(long[] board, long score) {
+        System.arraycopy(board, 0, this.board, 0, wordCount);
+        this.score = score;
+    }
+
+    private void push(int record) {
+        last = ++current;
+        if (last - first >= capacity)
+            first += keyframed ? KEYFRAME_INTERVAL : 1;
+        if (keyframed)
+            records[(int) (last % capacity)] = (short) record;
+        if (!keyframed || last % KEYFRAME_INTERVAL == 0)
+            store(last);
+    }
+
+    // ring slot of a step's board: every step on 4 x 4, its keyframe otherwise
+    private int getSlot(long step) {
+        return (int) (keyframed ? step / KEYFRAME_INTERVAL % scores.length : step % capacity);
+    }
+
+    private void store(long step) {
+        final int slot = getSlot(step);
+        System.arraycopy(board, 0, boards, slot * wordCount, wordCount);
+        scores[slot] = score;
+    }
+
+    private void load(long step) {
+        final int slot = getSlot(step);
+        System.arraycopy(boards, slot * wordCount, board, 0, wordCount);
+        score = scores[slot];
+        if (!keyframed)
+            return;
+        for (long replayed = step - step % KEYFRAME_INTERVAL + 1; replayed <= step; replayed++) {
+            score += MoveJournal.applyRecord(rules, board, nextBoard, records[(int) (replayed % capacity)] & 0xffff);
+            final long[] temp = board;
+            board = nextBoard;
+            nextBoard = temp;
+        }
+    }
+}
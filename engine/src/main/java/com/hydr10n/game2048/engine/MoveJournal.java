@@ -0,0 +1,75 @@
+/*
+ * Project: Game 2048
+ * Last Modified: 10/18/26 1:20 PM
+ *
+ * Copyright (C) 2026 Programmer-Yang_Xun@outlook.com. All Rights Reserved.
+ * Welcome to visit https://GitHub.com/Hydr10n
+ */
+
+package com.hydr10n.game2048.engine;
+
+import java.nio.ByteBuffer;
+
+/*
+ * Moves played since a snapshot, appended two bytes at a time: direction | spawned exponent << 2 (0 when nothing spawned),
+ * then the spawned cell as row * columns + column. The header holds the checksum of the snapshot the moves start from,
+ * so a journal outliving an interrupted compaction is ignored rather than applied twice.
+ */
+public final class MoveJournal {
+    public static final int HEADER_LENGTH = 8, RECORD_LENGTH = 2;
+    private static final int MAGIC = 0x4a524e31, DIRECTION_MASK = 3, EXPONENT_SHIFT = 2;
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private MoveJournal() {
+    }
+
+    public static byte[] createHeader(Snapshot base) {
+        return ByteBuffer.allocate(HEADER_LENGTH).putInt(MAGIC).putInt(base.getChecksum()).array();
+    }
+
+    // spawnCell is Game.NO_SPAWN when the move spawned nothing
+    public static byte[] createRecord(Direction direction, int spawnCell, int spawnExponent) {
+        final int record = encodeRecord(direction, spawnCell, spawnExponent);
+        return new byte[]{(byte) record, (byte) (record >>> Byte.SIZE)};
+    }
+
+    // the two bytes of a record as a little-endian int
+    static int encodeRecord(Direction direction, int spawnCell, int spawnExponent) {
+        return spawnCell == Game.NO_SPAWN ? direction.ordinal() : direction.ordinal() | spawnExponent << EXPONENT_SHIFT | spawnCell << Byte.SIZE;
+    }
+
+    // writes the board after the recorded move into result and returns the score gained, or NO_MOVE if the record does not fit the board
+    static long applyRecord(Rules rules, long[] board, long[] result, int record) {
+        final int columns = rules.getColumns(), exponent = record >>> EXPONENT_SHIFT & RowTable.CELL_MASK, cell = record >>> Byte.SIZE & 0xff;
+        final long gained = rules.move(board, result, DIRECTIONS[record & DIRECTION_MASK]);
+        if (gained == Rules.NO_MOVE || exponent == 0)
+            return gained;
+        if (cell >= rules.getCellsCount() || rules.getExponent(result, cell / columns, cell % columns) != 0)
+            return Rules.NO_MOVE;
+        rules.setExponent(result, cell / columns, cell % columns, exponent);
+        return gained;
+    }
+
+    // base with every move of the journal applied, up to the first record that is torn or does not fit the board
+    public static Snapshot replay(Snapshot base, byte[] journal) {
+        if (base.getBoard() == null || journal.length < HEADER_LENGTH)
+            return base;
+        final ByteBuffer buffer = ByteBuffer.wrap(journal);
+        if (buffer.getInt() != MAGIC || buffer.getInt() != base.getChecksum())
+            return base;
+        final Rules rules = base.getRules();
+        long[] board = base.getBoard().clone(), nextBoard = rules.newBoard();
+        long score = base.getScore(), bestScore = base.getBestScore();
+        while (buffer.remaining() >= RECORD_LENGTH) {
+            final long gained = applyRecord(rules, board, nextBoard, buffer.get() & 0xff | (buffer.get() & 0xff) << Byte.SIZE);
+            if (gained == Rules.NO_MOVE)
+                break;
+            final long[] temp = board;
+            board = nextBoard;
+            nextBoard = temp;
+            score += gained;
+            bestScore = Math.max(bestScore, score);
+        }
+        return new Snapshot(rules, score, bestScore, board, base.isKeepingGoing());
+    }
+}
@@ -0,0 +1,17 @@
+/*
+ * Project: Game 2048
+ * Last Modified: 10/17/26 9:20 AM
+ *
+ * Copyright (C) 2026 Programmer-Yang_Xun@outlook.com. All Rights Reserved.
+ * Welcome to visit https://GitHub.com/Hydr10n
+ */
+
+package com.hydr10n.game2048.engine;
+
+public interface MoveListener {
+    void onTileMoved(int fromRow, int fromColumn, int toRow, int toColumn);
+
+    void onTilesMerged(int fromRow1, int fromColumn1, int fromRow2, int fromColumn2, int toRow, int toColumn);
+
+    void onTileAdded(int row, int column, int exponent);
+}
@@ -0,0 +1,215 @@
+/*
+ * Project: Game 2048
+ * Last Modified: 10/18/26 10:30 PM
+ *
+ * Copyright (C) 2026 Programmer-Yang_Xun@outlook.com. All Rights Reserved.
+ * Welcome to visit https://GitHub.com/Hydr10n
+ */
+
+package com.hydr10n.game2048.engine;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.channels.FileChannel;
+
+/*
+ * A learned evaluator of 4 x 4 boards. Each tuple is a few cells whose exponents, packed 4 bits each, index a table of
+ * float weights; a board is worth the sum of its tuples' weights over all 8 symmetries of the board. Boards are afterstates,
+ * right after a move and before its spawn, worth the score still to come, as trained by temporal-difference learning.
+ * Other shapes, and 4 x 4 boards past 16384, which the nibbles of a tuple cannot hold, are left to a HeuristicEvaluator.
+ *
+ * The weights are off-heap, little-endian as saved, so load() maps the file instead of parsing it. Updates are not
+ * synchronized: threads training one network race on the same weights, which TD learning shrugs off.
+ */
+public final class NTupleNetwork implements Evaluator {
+    // rows and 2 x 2 squares, 1.25 MB
+    public static final int[][] COMPACT_TUPLES = {{0, 1, 2, 3}, {4, 5, 6, 7}, {0, 1, 4, 5}, {1, 2, 5, 6}, {5, 6, 9, 10}};
+    // the 6-tuples of Szubert and Jaskowski, 256 MB
+    public static final int[][] STANDARD_TUPLES = {{0, 1, 2, 3, 4, 5}, {4, 5, 6, 7, 8, 9}, {0, 1, 2, 4, 5, 6}, {4, 5, 6, 8, 9, 10}};
+
+    private static final int MAGIC = 0x314e544e, SYMMETRIES = 8, CELLS = Bitboard.SIZE * Bitboard.SIZE;    // "NTN1"
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private final int[][] tuples;
+    private final int[] offsets;          // of the table of each feature, a tuple in one symmetry
+    private final int[][] shifts;         // of each feature's cells in the board
+    private final ByteBuffer bytes;
+    private final FloatBuffer weights;
+    private final HeuristicEvaluator fallback = new HeuristicEvaluator();
+
+    // all weights 0
+    public NTupleNetwork(int[][] tuples) {
+        this(tuples, ByteBuffer.allocateDirect(getWeightsCount(tuples) * Float.BYTES));
+    }
+
+    private NTupleNetwork(int[][] tuples, ByteBuffer bytes) {
+        this.tuples = tuples;
+        offsets = new int[tuples.length * SYMMETRIES];
+        shifts = new int[tuples.length * SYMMETRIES][];
+        for (int i = 0, offset = 0; i < tuples.length; offset += 1 << tuples[i].length * RowTable.CELL_BITS, i++)
+            for (int symmetry = 0; symmetry < SYMMETRIES; symmetry++) {
+                offsets[i * SYMMETRIES + symmetry] = offset;
+                final int[] cellShifts = shifts[i * SYMMETRIES + symmetry] = new int[tuples[i].length];
+                for (int j = 0; j < cellShifts.length; j++)
+                    cellShifts[j] = transform(tuples[i][j], symmetry) * RowTable.CELL_BITS;
+            }
+        this.bytes = bytes.order(ByteOrder.LITTLE_ENDIAN);
+        weights = this.bytes.asFloatBuffer();
+    }
+
+    // writable: weights may be trained further; the file is left as it is either way
+    public static NTupleNetwork load(File file, boolean writable) throws IOException {
+        // a private mapping needs a channel open for writing, though it never writes to the file
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, writable ? "rw" : "r")) {
+            final FileChannel channel = randomAccessFile.getChannel();
+            final ByteBuffer header = ByteBuffer.allocate((int) Math.min(channel.size(), 2 * Integer.BYTES)).order(ByteOrder.LITTLE_ENDIAN);
+            readFully(channel, header, 0);
+            if (header.remaining() < 2 * Integer.BYTES || header.getInt() != MAGIC)
+                throw new IOException("not an n-tuple network");
+            final int tuplesCount = header.getInt();
+            if (tuplesCount <= 0 || tuplesCount > CELLS || channel.size() < getHeaderLength(tuplesCount))
+                throw new IOException("bad tuples count " + tuplesCount);
+            final ByteBuffer tuplesHeader = ByteBuffer.allocate(tuplesCount * (CELLS + 1)).order(ByteOrder.LITTLE_ENDIAN);
+            readFully(channel, tuplesHeader, 2 * Integer.BYTES);
+            final int[][] tuples = new int[tuplesCount][];
+            for (int i = 0; i < tuplesCount; i++) {
+                final int length = tuplesHeader.get();
+                if (length <= 0 || length > 7)
+                    throw new IOException("bad tuple length " + length);
+                tuples[i] = new int[length];
+                for (int j = 0; j < length; j++)
+                    if ((tuples[i][j] = tuplesHeader.get()) < 0 || tuples[i][j] >= CELLS)
+                        throw new IOException("bad cell " + tuples[i][j]);
+                tuplesHeader.position(tuplesHeader.position() + CELLS - length);
+            }
+            final long weightsPosition = getHeaderLength(tuplesCount);
+            final long weightsLength = (long) getWeightsCount(tuples) * Float.BYTES;
+            if (channel.size() != weightsPosition + weightsLength)
+                throw new IOException("bad length " + channel.size());
+            return new NTupleNetwork(tuples, channel.map(writable ? FileChannel.MapMode.PRIVATE : FileChannel.MapMode.READ_ONLY,
+                    weightsPosition, weightsLength));
+        }
+    }
+
+    // through a temporary file renamed over file, so a network mapped from file keeps reading the old weights
+    public void save(File file) throws IOException {
+        final ByteBuffer header = ByteBuffer.allocate(getHeaderLength(tuples.length)).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).putInt(tuples.length);
+        for (int[] tuple : tuples) {
+            header.put((byte) tuple.length);
+            for (int cell : tuple)
+                header.put((byte) cell);
+            header.position(header.position() + CELLS - tuple.length);
+        }
+        header.flip();
+        final File temporary = new File(file.getPath() + ".tmp");
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(temporary, "rw")) {
+            final FileChannel channel = randomAccessFile.getChannel();
+            channel.truncate(0);
+            while (header.hasRemaining())
+                channel.write(header);
+            final ByteBuffer source = bytes.duplicate();
+            source.clear();
+            while (source.hasRemaining())
+                channel.write(source);
+        }
+        if (!temporary.renameTo(file))
+            throw new IOException("cannot replace " + file);
+    }
+
+    public int[][] getTuples() {
+        return tuples;
+    }
+
+    @Override
+    public float evaluate(Rules rules, long[] board) {
+        return rules.isBitboard(board) ? evaluate(board[0]) : fallback.evaluate(rules, board);
+    }
+
+    public float evaluate(long board) {
+        float value = 0;
+        for (int i = 0; i < shifts.length; i++)
+            value += weights.get(offsets[i] + getIndex(board, shifts[i]));
+        return value;
+    }
+
+    // adds delta to every weight that evaluate(board) sums
+    public void update(long board, float delta) {
+        for (int i = 0; i < shifts.length; i++) {
+            final int index = offsets[i] + getIndex(board, shifts[i]);
+            weights.put(index, weights.get(index) + delta);
+        }
+    }
+
+    public int getFeaturesCount() {
+        return shifts.length;
+    }
+
+    // the move with the most score gained plus value of the board it leaves, or null when none is possible; no search
+    public Direction chooseMove(long board) {
+        Direction best = null;
+        float bestValue = 0;
+        final int score = Bitboard.getScore(board);
+        for (Direction direction : DIRECTIONS) {
+            final long moved = Bitboard.move(board, direction);
+            if (moved == board)
+                continue;
+            final float value = Bitboard.getScore(moved) - score + evaluate(moved);
+            if (best == null || value > bestValue) {
+                best = direction;
+                bestValue = value;
+            }
+        }
+        return best;
+    }
+
+    private static int getIndex(long board, int[] cellShifts) {
+        int index = 0;
+        for (int j = 0; j < cellShifts.length; j++)
+            index |= ((int) (board >>> cellShifts[j]) & RowTable.CELL_MASK) << j * RowTable.CELL_BITS;
+        return index;
+    }
+
+    // symmetry: bit 0 mirrors columns, bit 1 mirrors rows, bit 2 transposes, so the 8 values cover every rotation and mirror
+    private static int transform(int cell, int symmetry) {
+        int row = cell / Bitboard.SIZE, column = cell % Bitboard.SIZE;
+        if ((symmetry & 4) != 0) {
+            final int swap = row;
+            row = column;
+            column = swap;
+        }
+        if ((symmetry & 2) != 0)
+            row = Bitboard.SIZE - 1 - row;
+        if ((symmetry & 1) != 0)
+            column = Bitboard.SIZE - 1 - column;
+        return row * Bitboard.SIZE + column;
+    }
+
+    private static int getWeightsCount(int[][] tuples) {
+        long count = 0;
+        for (int[] tuple : tuples)
+            count += 1L << tuple.length * RowTable.CELL_BITS;
+        if (count * Float.BYTES > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("tuples too large");
+        return (int) count;
+    }
+
+    // magic and tuples count, then per tuple its length and up to CELLS cells, one byte each
+    private static int getHeaderLength(int tuplesCount) {
+        return 2 * Integer.BYTES + tuplesCount * (CELLS + 1);
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            final int read = channel.read(buffer, position);
+            if (read < 0)
+                break;
+            position += read;
+        }
+        buffer.flip();
+    }
+}
@@ -0,0 +1,210 @@
+/*
+ * Project: Game 2048
+ * Last Modified: 10/18/26 10:30 PM
+ *
+ * Copyright (C) 2026 Programmer-Yang_Xun@outlook.com. All Rights Reserved.
+ * Welcome to visit https://GitHub.com/Hydr10n
+ */
+
+package com.hydr10n.game2048.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/*
+ * Forks the root moves and the upper chance and max nodes of an exact Expectimax into a ForkJoinPool;
+ * subtrees shallower than FORK_MIN_DEPTH are searched sequentially, by one Expectimax per worker thread. Children are always combined in the same
+ * order and cached values are only reused at the same depth, so the result does not depend on scheduling.
+ */
+final class ParallelExpectimax {
+    private abstract class Node extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        final long[] board;
+        final int depth;
+        float value;
+        long nodes, cacheLookups, cacheHits;
+
+        Node(long[] board, int depth) {
+            this.board = board;
+            this.depth = depth;
+        }
+
+        void add(Node child) {
+            nodes += child.nodes;
+            cacheLookups += child.cacheLookups;
+            cacheHits += child.cacheHits;
+        }
+    }
+
+    private final class ChanceNode extends Node {
+        private static final long serialVersionUID = 1L;
+
+        final Direction direction;
+
+        ChanceNode(long[] board, int depth, Direction direction) {
+            super(board, depth);
+            this.direction = direction;
+        }
+
+        @Override
+        protected void compute() {
+            if (depth < FORK_MIN_DEPTH) {
+                final Expectimax expectimax = sequentialExpectimax.get();
+                expectimax.reset(budget);
+                value = expectimax.searchChance(board, depth, 1);
+                nodes = expectimax.getNodes();
+                cacheLookups = expectimax.getCacheLookups();
+                cacheHits = expectimax.getCacheHits();
+                return;
+            }
+            final long key = TranspositionTable.getKey(rules, board);
+            cacheLookups++;
+            value = transpositionTable.get(key, depth, true);
+            if (!Float.isNaN(value)) {
+                cacheHits++;
+                return;
+            }
+            // as in Expectimax, the image the value is cached for
+            long[] searched = board;
+            if (TranspositionTable.isCanonical(rules, board)) {
+                searched = rules.newBoard();
+                searched[0] = key;
+            }
+            final float fourProbability = spawnRule.getFourProbability(), twoProbability = 1 - fourProbability;
+            final List<MaxNode> children = new ArrayList<>();
+            for (int word = 0; word < searched.length; word++)
+                for (long cells = rules.getEmptyCells(searched, word); cells != 0; cells &= cells - 1) {
+                    final long cell = cells & -cells;
+                    if (twoProbability > 0)
+                        children.add(new MaxNode(searched, word, cell, depth, twoProbability));
+                    if (fourProbability > 0)
+                        children.add(new MaxNode(searched, word, cell << 1, depth, fourProbability));
+                }
+            invokeAll(children);
+            float total = 0;
+            for (MaxNode child : children) {
+                total += child.probability * child.value;
+                add(child);
+            }
+            value = total / rules.countEmpty(board);
+            if (!budget.isExhausted())
+                transpositionTable.put(key, depth, value);
+        }
+    }
+
+    private final class MaxNode extends Node {
+        private static final long serialVersionUID = 1L;
+
+        final float probability;
+
+        // the board after spawning the given tile bits into one word
+        MaxNode(long[] board, int word, long tile, int depth, float probability) {
+            super(board.clone(), depth);
+            this.board[word] |= tile;
+            this.probability = probability;
+        }
+
+        @Override
+        protected void compute() {
+            nodes = 1;
+            budget.spend(1);
+            if (budget.isExhausted())
+                return;
+            final List<ChanceNode> children = getChildren(board, depth);
+            invokeAll(children);
+            for (ChanceNode child : children) {
+                value = Math.max(value, child.value);
+                add(child);
+            }
+        }
+    }
+
+    private static final int FORK_MIN_DEPTH = 3;
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private final Rules rules;
+    private final Evaluator evaluator;
+    private final SpawnRule spawnRule;
+    private final TranspositionTable transpositionTable;
+    private final ForkJoinPool pool;
+    private final ThreadLocal<Expectimax> sequentialExpectimax = new ThreadLocal<Expectimax>() {
+        @Override
+        protected Expectimax initialValue() {
+            return new Expectimax(rules, evaluator, spawnRule, transpositionTable, true, FORK_MIN_DEPTH - 1);
+        }
+    };
+
+    private Expectimax.Budget budget;
+    private long nodes, cacheLookups, cacheHits;
+    private float rootValue;
+
+    ParallelExpectimax(Rules rules, Evaluator evaluator, SpawnRule spawnRule, TranspositionTable transpositionTable, ForkJoinPool pool) {
+        this.rules = rules;
+        this.evaluator = evaluator;
+        this.spawnRule = spawnRule;
+        this.transpositionTable = transpositionTable;
+        this.pool = pool;
+    }
+
+    void reset(Expectimax.Budget budget) {
+        this.budget = budget;
+        nodes = cacheLookups = cacheHits = 0;
+    }
+
+    long getNodes() {
+        return nodes;
+    }
+
+    long getCacheLookups() {
+        return cacheLookups;
+    }
+
+    long getCacheHits() {
+        return cacheHits;
+    }
+
+    // of the move searchRoot() chose last
+    float getRootValue() {
+        return rootValue;
+    }
+
+    Direction searchRoot(long[] board, final int depth) {
+        final List<ChanceNode> children = getChildren(board, depth);
+        pool.invoke(new RecursiveAction() {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected void compute() {
+                invokeAll(children);
+            }
+        });
+        Direction best = null;
+        float bestValue = -1;
+        for (ChanceNode child : children) {
+            nodes += child.nodes + 1;
+            cacheLookups += child.cacheLookups;
+            cacheHits += child.cacheHits;
+            if (child.value > bestValue) {
+                bestValue = child.value;
+                best = child.direction;
+            }
+        }
+        rootValue = bestValue;
+        return best;
+    }
+
+    private List<ChanceNode> getChildren(long[] board, int depth) {
+        final int legalDirections = rules.getLegalDirections(board);
+        final List<ChanceNode> children = new ArrayList<>(DIRECTIONS.length);
+        for (Direction direction : DIRECTIONS)
+            if ((legalDirections & 1 << direction.ordinal()) != 0) {
+                final long[] moved = rules.newBoard();
+                rules.move(board, moved, direction);
+                children.add(new ChanceNode(moved, depth - 1, direction));
+            }
+        return children;
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * Project: Game 2048
+ * Last Modified: 10/18/26 10:30 PM
+ *
+ * Copyright (C) 2026 Programmer-Yang_Xun@outlook.com. All Rights Reserved.
+ * Welcome to visit https://GitHub.com/Hydr10n
+ */
+
+package com.hydr10n.game2048.engine;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.Map;
+import java.util.TreeMap;
+
+/*
+ * Best moves and values of known positions of one board shape, e.g. openings or small-board endgames, in a memory-mapped
+ * file of RECORD_BYTES records sorted by key, so opening a table reads nothing and a lookup touches about log2(size) records.
+ * 4 x 4 boards are keyed by Bitboard.canonicalize(), with the move stored for that image, so one record answers for all 8
+ * symmetric positions; other shapes that fit one word are keyed by the board as it is. A 4 x 4 board past 16384 is not
+ * in one word, so tables neither record nor find it.
+ */
+public final class PositionTable {
+    public static final class Writer {
+        private final Rules rules;
+        private final TreeMap<Long, Long> records = new TreeMap<>();
+
+        public Writer(Rules rules) {
+            if (!supports(rules))
+                throw new IllegalArgumentException(rules.toString());
+            this.rules = rules;
+        }
+
+        // replaces any earlier record of the position or one symmetric to it
+        public synchronized void add(long[] board, Direction direction, float value) {
+            if (!fits(rules, board))
+                return;
+            if (isSymmetric(rules))
+                direction = Bitboard.transform(direction, Bitboard.getCanonicalSymmetry(board[0]));
+            records.put(getKey(rules, board), encode(direction, value));
+        }
+
+        public synchronized boolean contains(long[] board) {
+            return fits(rules, board) && records.containsKey(getKey(rules, board));
+        }
+
+        public synchronized int size() {
+            return records.size();
+        }
+
+        public synchronized void save(File file) throws IOException {
+            final long[] keys = new long[records.size()], values = new long[records.size()];
+            int count = 0;
+            for (Map.Entry<Long, Long> record : records.entrySet()) {
+                keys[count] = record.getKey();
+                values[count++] = record.getValue();
+            }
+            PositionTable.save(file, rules, keys, values, count);
+        }
+    }
+
+    public static final int NOT_FOUND = -1;
+    private static final int MAGIC = 0x31425450, HEADER_BYTES = 16, RECORD_BYTES = 16, BUFFER_RECORDS = 4096;    // "PTB1"
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private final Rules rules;
+    private final int size;
+    private final ByteBuffer records;
+
+    private PositionTable(Rules rules, int size, ByteBuffer records) {
+        this.rules = rules;
+        this.size = size;
+        this.records = records.order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    // a record's move and value; the move on the board as keyed, i.e. on the canonical image of a 4 x 4 board
+    public static long encode(Direction direction, float value) {
+        return (long) Float.floatToRawIntBits(value) << 32 | direction.ordinal();
+    }
+
+    public static float decodeValue(long record) {
+        return Float.intBitsToFloat((int) (record >>> 32));
+    }
+
+    // keys strictly ascending, as getKey() makes them, with the encode()d records of the same index
+    public static void save(File file, Rules rules, long[] keys, long[] records, int count) throws IOException {
+        if (!supports(rules))
+            throw new IllegalArgumentException(rules.toString());
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_RECORDS * RECORD_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).putInt(rules.getCode()).putInt(count).putInt(0);
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+            final FileChannel channel = randomAccessFile.getChannel();
+            channel.truncate(0);
+            for (int i = 0; i <= count; i++) {
+                if (i == count || !buffer.hasRemaining()) {
+                    buffer.flip();
+                    while (buffer.hasRemaining())
+                        channel.write(buffer);
+                    buffer.clear();
+                    if (i == count)
+                        break;
+                }
+                if (i > 0 && keys[i] <= keys[i - 1])
+                    throw new IllegalArgumentException("keys not ascending");
+                buffer.putLong(keys[i]).putLong(records[i]);
+            }
+        }
+    }
+
+    public static PositionTable load(File file) throws IOException {
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r")) {
+            final FileChannel channel = randomAccessFile.getChannel();
+            final ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(channel.size(), HEADER_BYTES))
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            if (header.remaining() < HEADER_BYTES || header.getInt() != MAGIC)
+                throw new IOException("not a position table");
+            final int code = header.getInt(), size = header.getInt();
+            final Rules rules = Rules.ofCode(code);
+            if (rules == null || !supports(rules))
+                throw new IOException("bad shape " + code);
+            if (size < 0 || size > Integer.MAX_VALUE / RECORD_BYTES || channel.size() != HEADER_BYTES + (long) size * RECORD_BYTES)
+                throw new IOException("bad length " + channel.size());
+            return new PositionTable(rules, size, channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES, (long) size * RECORD_BYTES));
+        }
+    }
+
+    // shapes whose boards fit one word, 4 x 4 included
+    public static boolean supports(Rules rules) {
+        return rules.getWordCount() == 1 || isSymmetric(rules);
+    }
+
+    public Rules getRules() {
+        return rules;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // the record of the position or one symmetric to it, or NOT_FOUND; the board must be of the table's shape
+    public int find(long[] board) {
+        if (!fits(rules, board))
+            return NOT_FOUND;
+        final long key = getKey(rules, board);
+        int low = 0, high = size - 1;
+        while (low <= high) {
+            final int middle = (low + high) >>> 1;
+            final long middleKey = records.getLong(middle * RECORD_BYTES);
+            if (middleKey < key)
+                low = middle + 1;
+            else if (middleKey > key)
+                high = middle - 1;
+            else
+                return middle;
+        }
+        return NOT_FOUND;
+    }
+
+    // the best move on board, whose record find() returned
+    public Direction getDirection(long[] board, int record) {
+        final Direction direction = DIRECTIONS[records.getInt(record * RECORD_BYTES + Long.BYTES) & 3];
+        return isSymmetric(rules) ? Bitboard.untransform(direction, Bitboard.getCanonicalSymmetry(board[0])) : direction;
+    }
+
+    public float getValue(int record) {
+        return records.getFloat(record * RECORD_BYTES + Long.BYTES + Integer.BYTES);
+    }
+
+    public static long getKey(Rules rules, long[] board) {
+        return isSymmetric(rules) ? Bitboard.canonicalize(board[0]) : board[0];
+    }
+
+    private static boolean fits(Rules rules, long[] board) {
+        return !isSymmetric(rules) || rules.isBitboard(board);
+    }
+
+    private static boolean isSymmetric(Rules rules) {
+        return rules.getRows() == Bitboard.SIZE && rules.getColumns() == Bitboard.SIZE;
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * Project: Game 2048
+ * Last Modified: 10/18/26 9:15 PM
+ *
+ * Copyright (C) 2026 Programmer-Yang_Xun@outlook.com. All Rights Reserved.
+ * Welcome to visit https://GitHub.com/Hydr10n
+ */
+
+package com.hydr10n.game2048.engine;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+/*
+ * A game as its seed and what the player did, one nibble per operation: a Direction ordinal, UNDO, REDO or KEEP_GOING.
+ * Playing it back with the same rules reproduces every spawn, so the score it claims can be checked.
+ * Binary layout, big-endian: magic "RPL1", version, shape (Rules.getCode()), 4s probability, seed, score, operations count,
+ * operations, CRC-32. Other versions are rejected.
+ */
+public final class Replay {
+    public static final int VERSION = 2, UNDO = 4, REDO = 5, KEEP_GOING = 6;
+    private static final int MAGIC = 0x52504c31, HEADER_LENGTH = 30, CHECKSUM_LENGTH = 4, INITIAL_CAPACITY = 256;
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private final Rules rules;
+    private final SpawnRule spawnRule;
+    private final long seed;
+
+    private byte[] operations;
+    private int operationsCount;
+    private long score;
+
+    public Replay(Rules rules, SpawnRule spawnRule, long seed) {
+        this(rules, spawnRule, seed, new byte[INITIAL_CAPACITY], 0);
+    }
+
+    private Replay(Rules rules, SpawnRule spawnRule, long seed, byte[] operations, int operationsCount) {
+        this.rules = rules;
+        this.spawnRule = spawnRule;
+        this.seed = seed;
+        this.operations = operations;
+        this.operationsCount = operationsCount;
+    }
+
+    public Rules getRules() {
+        return rules;
+    }
+
+    public SpawnRule getSpawnRule() {
+        return spawnRule;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getOperationsCount() {
+        return operationsCount;
+    }
+
+    // the score the game reported, which verify() checks
+    public long getScore() {
+        return score;
+    }
+
+    public void setScore(long score) {
+        this.score = score;
+    }
+
+    public void addMove(Direction direction) {
+        add(direction.ordinal());
+    }
+
+    public void addUndo() {
+        add(UNDO);
+    }
+
+    public void addRedo() {
+        add(REDO);
+    }
+
+    public void addKeepGoing() {
+        add(KEEP_GOING);
+    }
+
+    public int getOperation(int index) {
+        return operations[index / 2] >>> index % 2 * RowTable.CELL_BITS & RowTable.CELL_MASK;
+    }
+
+    // the game the operations lead to, or null if one of them was impossible at its turn
+    public Game play() {
+        final Game game = new Game(rules, seed, spawnRule);
+        final int wordCount = game.getRules().getWordCount();
+        game.newGame(null);
+        long[] boards = new long[INITIAL_CAPACITY * wordCount];
+        long[] scores = new long[INITIAL_CAPACITY];
+        final long[] board = game.getBoard();
+        System.arraycopy(board, 0, boards, 0, wordCount);
+        int current = 0, last = 0;
+        for (int i = 0; i < operationsCount; i++) {
+            final int operation = getOperation(i);
+            if (operation < DIRECTIONS.length) {
+                if (game.isWon() || !game.move(DIRECTIONS[operation], null))
+                    return null;
+                last = ++current;
+                if (last == scores.length) {
+                    boards = Arrays.copyOf(boards, boards.length * 2);
+                    scores = Arrays.copyOf(scores, scores.length * 2);
+                }
+                game.getBoard(board);
+                System.arraycopy(board, 0, boards, current * wordCount, wordCount);
+                scores[current] = game.getScore();
+                continue;
+            }
+            if (operation == KEEP_GOING) {
+                if (game.isKeepingGoing())
+                    return null;
+                game.keepGoing();
+                continue;
+            }
+            if (operation == UNDO ? current == 0 : operation != REDO || current == last)
+                return null;
+            current += operation == UNDO ? -1 : 1;
+            System.arraycopy(boards, current * wordCount, board, 0, wordCount);
+            game.restore(board, scores[current]);
+        }
+        return game;
+    }
+
+    public boolean verify() {
+        final Game game = play();
+        return game != null && game.getScore() == score;
+    }
+
+    public byte[] toBytes() {
+        final int operationsLength = (operationsCount + 1) / 2;
+        final ByteBuffer buffer = ByteBuffer.allocate(HEADER_LENGTH + operationsLength + CHECKSUM_LENGTH);
+        buffer.putInt(MAGIC).put((byte) VERSION).put((byte) rules.getCode()).putFloat(spawnRule.getFourProbability()).putLong(seed)
+                .putLong(score).putInt(operationsCount).put(operations, 0, operationsLength);
+        buffer.putInt(getChecksum(buffer.array(), buffer.position()));
+        return buffer.array();
+    }
+
+    public static Replay fromBytes(byte[] bytes) throws IOException {
+        if (bytes.length < HEADER_LENGTH + CHECKSUM_LENGTH)
+            throw new IOException("Truncated replay");
+        final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        if (buffer.getInt() != MAGIC)
+            throw new IOException("Not a replay");
+        final int version = buffer.get();
+        if (version != VERSION)
+            throw new IOException("Unsupported replay version " + version);
+        final Rules rules = Rules.ofCode(buffer.get() & 0xff);
+        final float fourProbability = buffer.getFloat();
+        final long seed = buffer.getLong(), score = buffer.getLong();
+        final int operationsCount = buffer.getInt();
+        if (rules == null || !(fourProbability >= 0 && fourProbability <= 1) || operationsCount < 0)
+            throw new IOException("Invalid replay header");
+        final int operationsLength = (operationsCount + 1) / 2;
+        if (bytes.length != HEADER_LENGTH + operationsLength + CHECKSUM_LENGTH
+                || getChecksum(bytes, bytes.length - CHECKSUM_LENGTH) != ByteBuffer.wrap(bytes, bytes.length - CHECKSUM_LENGTH, CHECKSUM_LENGTH).getInt())
+            throw new IOException("Corrupt replay");
+        final byte[] operations = Arrays.copyOfRange(bytes, HEADER_LENGTH, HEADER_LENGTH + operationsLength);
+        final Replay replay = new Replay(rules, new SpawnRule(fourProbability), seed,
+                Arrays.copyOf(operations, Math.max(operationsLength, INITIAL_CAPACITY)), operationsCount);
+        replay.score = score;
+        return replay;
+    }
+
+    private void add(int operation) {
+        if (operationsCount / 2 == operations.length)
+            operations = Arrays.copyOf(operations, operations.length * 2);
+        operations[operationsCount / 2] |= operation << operationsCount % 2 * RowTable.CELL_BITS;
+        operationsCount++;
+    }
+
+    private static int getChecksum(byte[] bytes, int length) {
+        final CRC32 crc32 = new CRC32();
+        crc32.update(bytes, 0, length);
+        return (int) crc32.getValue();
+    }
+}
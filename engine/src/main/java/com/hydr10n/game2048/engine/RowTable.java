@@ -0,0 +1,126 @@
+/*
+ * Project: Game 2048
+ * Last Modified: 10/18/26 1:20 PM
+ *
+ * Copyright (C) 2026 Programmer-Yang_Xun@outlook.com. All Rights Reserved.
+ * Welcome to visit https://GitHub.com/Hydr10n
+ */
+
+package com.hydr10n.game2048.engine;
+
+/*
+ * A row is packed as 4-bit log2 exponents, cell 0 in the lowest bits; moving left slides cells towards cell 0.
+ * Rows up to 5 cells wide are looked up in a precomputed table (1M entries at most), built once per width and shared by
+ * every board with lines that long; rows up to MAX_WIDTH are slid directly. The static methods taking a long serve any line,
+ * those also taking cellBits lines of WIDE_CELL_BITS cells as well. A tile at the largest exponent a cell holds does not merge.
+ */
+final class RowTable {
+    static final int CELL_BITS = 4, CELL_MASK = (1 << CELL_BITS) - 1, MAX_EXPONENT = CELL_MASK, MAX_WIDTH = 6, MAX_TABLE_WIDTH = 5,
+            WIDE_CELL_BITS = 5;
+    private static final int WIDE_PAIR_BITS = 2 * WIDE_CELL_BITS;
+    private static final int[] NIBBLE_SWAP = new int[256], PAIR_SCORE = new int[256];
+    private static final long[] WIDE_PAIR_SCORE = new long[1 << WIDE_PAIR_BITS];
+    private static final RowTable[] INSTANCES = new RowTable[MAX_WIDTH + 1];
+
+    static {
+        for (int i = 0; i < 256; i++) {
+            NIBBLE_SWAP[i] = (i & CELL_MASK) << CELL_BITS | i >>> CELL_BITS;
+            PAIR_SCORE[i] = (int) (getCellScore(i & CELL_MASK) + getCellScore(i >>> CELL_BITS));
+        }
+        for (int i = 0; i < WIDE_PAIR_SCORE.length; i++)
+            WIDE_PAIR_SCORE[i] = getCellScore(i & (1 << WIDE_CELL_BITS) - 1) + getCellScore(i >>> WIDE_CELL_BITS);
+    }
+
+    private final int reverseShift;
+    private final int[] left;
+
+    private RowTable(int width) {
+        reverseShift = (MAX_WIDTH - width) * CELL_BITS;
+        if (width <= MAX_TABLE_WIDTH) {
+            left = new int[1 << width * CELL_BITS];
+            for (int row = 0; row < left.length; row++)
+                left[row] = (int) slideLeft(row);
+        } else
+            left = null;
+    }
+
+    static synchronized RowTable of(int width) {
+        if (width < 1 || width > MAX_WIDTH)
+            throw new IllegalArgumentException();
+        if (INSTANCES[width] == null)
+            INSTANCES[width] = new RowTable(width);
+        return INSTANCES[width];
+    }
+
+    int moveLeft(int row) {
+        return left == null ? (int) slideLeft(row) : left[row];
+    }
+
+    int moveRight(int row) {
+        return reverse(moveLeft(reverse(row)));
+    }
+
+    int reverse(int row) {
+        return reverseAndShift(row, reverseShift);
+    }
+
+    static int reverse(int row, int width) {
+        return reverseAndShift(row, (MAX_WIDTH - width) * CELL_BITS);
+    }
+
+    private static int reverseAndShift(int row, int shift) {
+        return (NIBBLE_SWAP[row & 0xff] << 16 | NIBBLE_SWAP[row >>> 8 & 0xff] << 8 | NIBBLE_SWAP[row >>> 16]) >>> shift;
+    }
+
+    // any width up to 16 cells; stops at the last tile
+    static long slideLeft(long row) {
+        return slideLeft(row, CELL_BITS);
+    }
+
+    // any width up to 64 / cellBits cells
+    static long slideLeft(long row, int cellBits) {
+        final int mask = (1 << cellBits) - 1;
+        long result = 0;
+        int next = 0, pending = 0;
+        for (; row != 0; row >>>= cellBits) {
+            final int exponent = (int) row & mask;
+            if (exponent == 0)
+                continue;
+            if (exponent == pending && exponent < mask) {
+                result |= (long) (exponent + 1) << next++ * cellBits;
+                pending = 0;
+            } else {
+                if (pending != 0)
+                    result |= (long) pending << next++ * cellBits;
+                pending = exponent;
+            }
+        }
+        if (pending != 0)
+            result |= (long) pending << next * cellBits;
+        return result;
+    }
+
+    /*
+     * Score needed to build every tile of the row from 2s: a merge into exponent e always adds exactly 2^e to it,
+     * so the score of a move is the difference between the scores after and before it.
+     */
+    static int getScore(int row) {
+        return PAIR_SCORE[row & 0xff] + PAIR_SCORE[row >>> 8 & 0xff] + PAIR_SCORE[row >>> 16];
+    }
+
+    // any width up to 64 / cellBits cells, cellBits being CELL_BITS or WIDE_CELL_BITS; a long, as wide cells go up to exponent 31
+    static long getScore(long row, int cellBits) {
+        long score = 0;
+        if (cellBits == CELL_BITS)
+            for (; row != 0; row >>>= Byte.SIZE)
+                score += PAIR_SCORE[(int) row & 0xff];
+        else
+            for (; row != 0; row >>>= WIDE_PAIR_BITS)
+                score += WIDE_PAIR_SCORE[(int) row & WIDE_PAIR_SCORE.length - 1];
+        return score;
+    }
+
+    private static long getCellScore(int exponent) {
+        return exponent < 2 ? 0 : (long) (exponent - 1) << exponent;
+    }
+}
@@ -0,0 +1,357 @@
+/*
+ * Project: Game 2048
+ * Last Modified: 10/18/26 10:30 PM
+ *
+ * Copyright (C) 2026 Programmer-Yang_Xun@outlook.com. All Rights Reserved.
+ * Welcome to visit https://GitHub.com/Hydr10n
+ */
+
+package com.hydr10n.game2048.engine;
+
+/*
+ * Move rules of a board of rows x columns cells, each a log2 exponent, packed into long words of as many whole rows as fit
+ * in 64 bits. How a move is made depends on the shape: 4 x 4 is one Bitboard long, any other board gathers every line
+ * into a long through precomputed cell positions and slides it, looked up in a RowTable when its cells are 4 bits.
+ * Cells are 5 bits, tiles up to 2^31, for endless games, except on boards of fewer than NARROW_MAX_CELLS cells, which
+ * cannot build a tile past 16384, and on 4 x 4: its board stays in the Bitboard long, board[1] being 0, until a tile
+ * reaches 32768, and is then laid out over both words in 5-bit cells like a board with longer lines, with WIDE_MARKER
+ * set in board[1]. Every score fits a long with room to spare, so nothing checks for overflow.
+ */
+public final class Rules {
+    public static final int MIN_SIZE = 3, MAX_SIZE = 10, NO_MOVE = -1, ALL_DIRECTIONS = (1 << Direction.values().length) - 1;
+    private static final int HORIZONTAL_DIRECTIONS = 1 << Direction.Left.ordinal() | 1 << Direction.Right.ordinal(),
+            VERTICAL_DIRECTIONS = 1 << Direction.Up.ordinal() | 1 << Direction.Down.ordinal();
+    private static final int KIND_BITBOARD = 0, KIND_LINES = 1, CODE_SHIFT = 4, CODE_MASK = (1 << CODE_SHIFT) - 1,
+            NARROW_MAX_CELLS = 15;
+    private static final long WIDE_MARKER = Long.MIN_VALUE;    // a bit no row of 5-bit cells reaches
+    private static final Rules[][] INSTANCES = new Rules[MAX_SIZE + 1][MAX_SIZE + 1];
+
+    private final int rows, columns, kind, cellBits, cellMask, rowBits, rowsPerWord, wordCount;
+    private final long rowMask, rowLowBits;
+    private final long[] cellLowBits;    // [word], lowest bit of every cell the word holds
+    private final int[][] lineRows, lineColumns;    // [direction][line * length + index], index 0 being the cell tiles slide towards
+    private final int[][] lineWords, lineShifts;    // the same cells as the word and shift they are packed at
+    private final RowTable rowTable, columnTable;    // for boards of 4-bit cells, else null
+    private final Rules wide;    // of 4 x 4, the layout its boards move to at 32768; not one of INSTANCES
+
+    private Rules(int rows, int columns, int kind) {
+        this.rows = rows;
+        this.columns = columns;
+        this.kind = kind;
+        cellBits = kind == KIND_BITBOARD || rows * columns < NARROW_MAX_CELLS ? RowTable.CELL_BITS : RowTable.WIDE_CELL_BITS;
+        cellMask = (1 << cellBits) - 1;
+        rowBits = columns * cellBits;
+        rowMask = (1L << rowBits) - 1;
+        long rowLowBits = 0;
+        for (int column = 0; column < columns; column++)
+            rowLowBits |= 1L << column * cellBits;
+        this.rowLowBits = rowLowBits;
+        rowsPerWord = Long.SIZE / rowBits;
+        wide = kind == KIND_BITBOARD ? new Rules(rows, columns, KIND_LINES) : null;
+        wordCount = wide != null ? wide.wordCount : (rows + rowsPerWord - 1) / rowsPerWord;
+        rowTable = kind == KIND_LINES && cellBits == RowTable.CELL_BITS ? RowTable.of(columns) : null;
+        columnTable = kind == KIND_LINES && cellBits == RowTable.CELL_BITS ? RowTable.of(rows) : null;
+        cellLowBits = new long[wordCount];
+        for (int row = 0; row < rows; row++)
+            for (int column = 0; column < columns; column++)
+                cellLowBits[row / rowsPerWord] |= 1L << getShift(row, column);
+        final int directionsCount = Direction.values().length, cellsCount = rows * columns;
+        lineRows = new int[directionsCount][cellsCount];
+        lineColumns = new int[directionsCount][cellsCount];
+        lineWords = new int[directionsCount][cellsCount];
+        lineShifts = new int[directionsCount][cellsCount];
+        for (int row = 0; row < rows; row++)
+            for (int column = 0; column < columns; column++) {
+                final int left = row * columns + column, right = row * columns + columns - 1 - column,
+                        up = column * rows + row, down = column * rows + rows - 1 - row;
+                lineRows[Direction.Left.ordinal()][left] = lineRows[Direction.Right.ordinal()][right] = row;
+                lineColumns[Direction.Left.ordinal()][left] = lineColumns[Direction.Right.ordinal()][right] = column;
+                lineRows[Direction.Up.ordinal()][up] = lineRows[Direction.Down.ordinal()][down] = row;
+                lineColumns[Direction.Up.ordinal()][up] = lineColumns[Direction.Down.ordinal()][down] = column;
+            }
+        for (int direction = 0; direction < directionsCount; direction++)
+            for (int i = 0; i < cellsCount; i++) {
+                lineWords[direction][i] = lineRows[direction][i] / rowsPerWord;
+                lineShifts[direction][i] = getShift(lineRows[direction][i], lineColumns[direction][i]);
+            }
+    }
+
+    public static Rules of(int size) {
+        return of(size, size);
+    }
+
+    public static synchronized Rules of(int rows, int columns) {
+        if (!isValid(rows, columns))
+            throw new IllegalArgumentException();
+        if (INSTANCES[rows][columns] == null)
+            INSTANCES[rows][columns] = new Rules(rows, columns,
+                    rows == Bitboard.SIZE && columns == Bitboard.SIZE ? KIND_BITBOARD : KIND_LINES);
+        return INSTANCES[rows][columns];
+    }
+
+    public static boolean isValid(int rows, int columns) {
+        return rows >= MIN_SIZE && rows <= MAX_SIZE && columns >= MIN_SIZE && columns <= MAX_SIZE;
+    }
+
+    // "6" for a square board or "4x6" for rows x columns, as toString() writes it
+    public static Rules parse(String shape) {
+        final int separator = shape.indexOf('x');
+        if (separator == -1)
+            return of(Integer.parseInt(shape));
+        return of(Integer.parseInt(shape.substring(0, separator)), Integer.parseInt(shape.substring(separator + 1)));
+    }
+
+    // null if no shape has the code
+    public static Rules ofCode(int code) {
+        final int rows = code > MAX_SIZE ? code >>> CODE_SHIFT : code, columns = code > MAX_SIZE ? code & CODE_MASK : code;
+        return isValid(rows, columns) && of(rows, columns).getCode() == code ? of(rows, columns) : null;
+    }
+
+    // the shape as one byte of saved data: the size of a square board, as older data has it, else rows << 4 | columns
+    public int getCode() {
+        return rows == columns ? rows : rows << CODE_SHIFT | columns;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    public int getCellsCount() {
+        return rows * columns;
+    }
+
+    public boolean isSquare() {
+        return rows == columns;
+    }
+
+    // the largest exponent a cell holds; tiles that reach it do not merge any more
+    public int getExponentLimit() {
+        return wide != null ? wide.cellMask : cellMask;
+    }
+
+    public int getWordCount() {
+        return wordCount;
+    }
+
+    public long[] newBoard() {
+        return new long[wordCount];
+    }
+
+    // whether board[0] alone is the board, as a Bitboard long: a 4 x 4 board with no tile past 16384
+    public boolean isBitboard(long[] board) {
+        return kind == KIND_BITBOARD && board[1] == 0;
+    }
+
+    public int getExponent(long[] board, int row, int column) {
+        if (isWide(board))
+            return wide.getExponent(board, row, column);
+        return (int) (board[row / rowsPerWord] >>> getShift(row, column)) & cellMask;
+    }
+
+    public void setExponent(long[] board, int row, int column, int exponent) {
+        if (wide != null && (board[1] != 0 || exponent >= RowTable.MAX_EXPONENT)) {
+            if (board[1] == 0)
+                widen(board);
+            wide.setExponent(board, row, column, exponent);
+            return;
+        }
+        final int word = row / rowsPerWord, shift = getShift(row, column);
+        board[word] = board[word] & ~((long) cellMask << shift) | (long) exponent << shift;
+    }
+
+    // writes the moved board into result and returns the score gained, or NO_MOVE if nothing would move
+    public long move(long[] board, long[] result, Direction direction) {
+        switch (kind) {
+            case KIND_BITBOARD:
+                if (isWide(board)) {
+                    final long score = wide.move(board, result, direction);
+                    result[1] |= WIDE_MARKER;
+                    return score;
+                }
+                final long moved = Bitboard.move(board[0], direction);
+                if (moved == board[0])
+                    return NO_MOVE;
+                result[0] = moved;
+                result[1] = 0;
+                // two of the 32768 just made merge past what a nibble holds
+                if (Bitboard.hasMaxExponent(moved))
+                    widen(result);
+                return Bitboard.getScore(moved) - Bitboard.getScore(board[0]);
+            default:
+                return moveLines(board, result, direction);
+        }
+    }
+
+    public int countEmpty(long[] board) {
+        if (isWide(board))
+            return wide.countEmpty(board);
+        int count = 0;
+        for (int word = 0; word < wordCount; word++)
+            count += Long.bitCount(getEmptyCells(board, word));
+        return count;
+    }
+
+    // lowest bit of every empty cell in one word of the board
+    public long getEmptyCells(long[] board, int word) {
+        if (isWide(board))
+            return wide.getEmptyCells(board, word);
+        return ~collapseCells(board[word]) & cellLowBits[word];
+    }
+
+    // row * columns + column of the index-th empty cell in row-major order
+    public int getEmptyCell(long[] board, int index) {
+        if (isWide(board))
+            return wide.getEmptyCell(board, index);
+        for (int word = 0; ; word++) {
+            final long cells = getEmptyCells(board, word);
+            final int count = Long.bitCount(cells);
+            if (index < count)
+                return word * rowsPerWord * columns + Bitboard.selectCell(cells, index) / cellBits;
+            index -= count;
+        }
+    }
+
+    public int getMaxExponent(long[] board) {
+        int max = 0;
+        for (int row = 0; row < rows; row++)
+            for (int column = 0; column < columns; column++)
+                max = Math.max(max, getExponent(board, row, column));
+        return max;
+    }
+
+    public boolean isGameOver(long[] board) {
+        return getLegalDirections(board) == 0;
+    }
+
+    /*
+     * Bit (1 << direction.ordinal()) is set when moving that way would change the board. Compares each packed row
+     * with its right neighbour column and with the row below it, a few word operations per row, and stops once every direction is legal.
+     */
+    public int getLegalDirections(long[] board) {
+        if (isWide(board))
+            return wide.getLegalDirections(board);
+        int legal = 0;
+        long above = 0, aboveEmpty = 0;
+        for (int row = 0; row < rows && legal != ALL_DIRECTIONS; row++) {
+            final long value = getRow(board, row), empty = getEmptyCells(value), filled = empty ^ rowLowBits,
+                    mergeable = filled & ~getEmptyCells(~value & rowMask);
+            if ((filled >>> cellBits & empty) != 0)
+                legal |= 1 << Direction.Left.ordinal();
+            if ((filled << cellBits & empty) != 0)
+                legal |= 1 << Direction.Right.ordinal();
+            if ((getEmptyCells(value ^ value >>> cellBits) & mergeable & rowLowBits >>> cellBits) != 0)
+                legal |= HORIZONTAL_DIRECTIONS;
+            if (row > 0) {
+                if ((filled & aboveEmpty) != 0)
+                    legal |= 1 << Direction.Up.ordinal();
+                if ((empty & ~aboveEmpty) != 0)
+                    legal |= 1 << Direction.Down.ordinal();
+                if ((getEmptyCells(value ^ above) & mergeable) != 0)
+                    legal |= VERTICAL_DIRECTIONS;
+            }
+            above = value;
+            aboveEmpty = empty;
+        }
+        return legal;
+    }
+
+    @Override
+    public String toString() {
+        return rows == columns ? String.valueOf(rows) : rows + "x" + columns;
+    }
+
+    // every line read in the order tiles slide in, so one slide towards its first cell serves all four directions
+    private long moveLines(long[] board, long[] result, Direction direction) {
+        final int[] words = lineWords[direction.ordinal()], shifts = lineShifts[direction.ordinal()];
+        final int length = getLineLength(direction);
+        final RowTable table = direction == Direction.Left || direction == Direction.Right ? rowTable : columnTable;
+        for (int word = 0; word < wordCount; word++)
+            result[word] = 0;
+        boolean moved = false;
+        long score = 0;
+        for (int start = 0; start < words.length; start += length) {
+            long before = 0;
+            for (int index = 0; index < length; index++)
+                before |= (board[words[start + index]] >>> shifts[start + index] & cellMask) << index * cellBits;
+            final long after = table == null ? RowTable.slideLeft(before, cellBits) : table.moveLeft((int) before);
+            if (after != before) {
+                moved = true;
+                score += RowTable.getScore(after, cellBits) - RowTable.getScore(before, cellBits);
+            }
+            for (int index = 0; index < length; index++)
+                result[words[start + index]] |= (after >>> index * cellBits & cellMask) << shifts[start + index];
+        }
+        return moved ? score : NO_MOVE;
+    }
+
+    private boolean isWide(long[] board) {
+        return wide != null && board[1] != 0;
+    }
+
+    // moves a 4 x 4 board out of its Bitboard long, which has no room for 65536
+    private void widen(long[] board) {
+        final long bitboard = board[0];
+        board[0] = 0;
+        board[1] = WIDE_MARKER;
+        for (int row = 0; row < rows; row++)
+            for (int column = 0; column < columns; column++)
+                wide.setExponent(board, row, column, Bitboard.getExponent(bitboard, row, column));
+    }
+
+    // lowest bit of every empty cell in a packed row
+    private long getEmptyCells(long row) {
+        return ~collapseCells(row) & rowLowBits;
+    }
+
+    // the lowest bit of every cell set if any bit of the cell is; the other bits are garbage
+    private long collapseCells(long value) {
+        long cells = value | value >>> 1;
+        cells |= cells >>> 2;
+        return cellBits == RowTable.CELL_BITS ? cells : cells | value >>> RowTable.CELL_BITS;
+    }
+
+    private int getShift(int row, int column) {
+        return row % rowsPerWord * rowBits + column * cellBits;
+    }
+
+    // the Rules whose cell layout the board is in: this, or the 5-bit one of a 4 x 4 board past 16384
+    Rules getLayout(long[] board) {
+        return isWide(board) ? wide : this;
+    }
+
+    int getCellBits() {
+        return cellBits;
+    }
+
+    // rows for Left and Right, columns for Up and Down
+    int getLinesCount(Direction direction) {
+        return direction == Direction.Left || direction == Direction.Right ? rows : columns;
+    }
+
+    int getLineLength(Direction direction) {
+        return direction == Direction.Left || direction == Direction.Right ? columns : rows;
+    }
+
+    int getLineRow(Direction direction, int line, int index) {
+        return lineRows[direction.ordinal()][line * getLineLength(direction) + index];
+    }
+
+    int getLineColumn(Direction direction, int line, int index) {
+        return lineColumns[direction.ordinal()][line * getLineLength(direction) + index];
+    }
+
+    long getRow(long[] board, int row) {
+        return board[row / rowsPerWord] >>> row % rowsPerWord * rowBits & rowMask;
+    }
+
+    long getColumn(long[] board, int column) {
+        long value = 0;
+        for (int row = 0; row < rows; row++)
+            value |= (long) getExponent(board, row, column) << row * cellBits;
+        return value;
+    }
+}
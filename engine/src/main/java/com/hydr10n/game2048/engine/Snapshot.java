@@ -0,0 +1,164 @@
+/*
+ * Project: Game 2048
+ * Last Modified: 10/18/26 9:15 PM
+ *
+ * Copyright (C) 2026 Programmer-Yang_Xun@outlook.com. All Rights Reserved.
+ * Welcome to visit https://GitHub.com/Hydr10n
+ */
+
+package com.hydr10n.game2048.engine;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+
+/*
+ * Saved state of one board shape. Binary layout, big-endian:
+ * magic "2048", version, shape (Rules.getCode()), flags, score and best score as unsigned varints (7 bits a byte, low first),
+ * when a game is in progress its cells, exponents in row-major order: a nibble each, low nibble first, or a byte each once a tile
+ * is past 32768, then the CRC-32 of everything before it. Other versions are rejected.
+ */
+public final class Snapshot {
+    public static final int VERSION = 2;
+    private static final int MAGIC = 0x32303438, CHECKSUM_LENGTH = 4, MIN_LENGTH = 9 + CHECKSUM_LENGTH,
+            FLAG_BOARD = 1, FLAG_KEEPING_GOING = 2, FLAG_BYTE_CELLS = 4, VARINT_BITS = 7, VARINT_MASK = (1 << VARINT_BITS) - 1,
+            MAX_VARINT_LENGTH = (Long.SIZE + VARINT_BITS - 1) / VARINT_BITS;
+
+    private final Rules rules;
+    private final long score, bestScore;
+    private final long[] board;
+    private final boolean keepingGoing;
+    private Integer checksum;    // as read or written, so checking a journal against it does not encode the snapshot again
+
+    // board is null when no game is in progress
+    public Snapshot(Rules rules, long score, long bestScore, long[] board) {
+        this(rules, score, bestScore, board, false);
+    }
+
+    public Snapshot(Rules rules, long score, long bestScore, long[] board, boolean keepingGoing) {
+        this.rules = rules;
+        this.score = score;
+        this.bestScore = bestScore;
+        this.board = board;
+        this.keepingGoing = keepingGoing;
+    }
+
+    public Rules getRules() {
+        return rules;
+    }
+
+    public long getScore() {
+        return score;
+    }
+
+    public long getBestScore() {
+        return bestScore;
+    }
+
+    public long[] getBoard() {
+        return board;
+    }
+
+    // the game in progress went on past its win, see Game.keepGoing()
+    public boolean isKeepingGoing() {
+        return keepingGoing;
+    }
+
+    // the checksum stored at the end of toBytes(), or of the bytes the snapshot was read from
+    public int getChecksum() {
+        if (checksum == null) {
+            final byte[] bytes = toBytes();
+            checksum = ByteBuffer.wrap(bytes, bytes.length - CHECKSUM_LENGTH, CHECKSUM_LENGTH).getInt();
+        }
+        return checksum;
+    }
+
+    public byte[] toBytes() {
+        final int columns = rules.getColumns(), cellsCount = rules.getCellsCount();
+        final boolean byteCells = board != null && rules.getMaxExponent(board) > RowTable.MAX_EXPONENT;
+        final int boardLength = board == null ? 0 : byteCells ? cellsCount : (cellsCount + 1) / 2;
+        final ByteBuffer buffer = ByteBuffer.allocate(MIN_LENGTH + 2 * (MAX_VARINT_LENGTH - 1) + boardLength);
+        buffer.putInt(MAGIC).put((byte) VERSION).put((byte) rules.getCode())
+                .put((byte) ((board == null ? 0 : FLAG_BOARD) | (keepingGoing ? FLAG_KEEPING_GOING : 0) | (byteCells ? FLAG_BYTE_CELLS : 0)));
+        putVarint(buffer, score);
+        putVarint(buffer, bestScore);
+        if (byteCells)
+            for (int cell = 0; cell < cellsCount; cell++)
+                buffer.put((byte) rules.getExponent(board, cell / columns, cell % columns));
+        else
+            for (int cell = 0; cell < boardLength * 2; cell += 2) {
+                final int low = rules.getExponent(board, cell / columns, cell % columns),
+                        high = cell + 1 < cellsCount ? rules.getExponent(board, (cell + 1) / columns, (cell + 1) % columns) : 0;
+                buffer.put((byte) (high << RowTable.CELL_BITS | low));
+            }
+        buffer.putInt(getChecksum(buffer.array(), buffer.position()));
+        final byte[] bytes = new byte[buffer.position()];
+        System.arraycopy(buffer.array(), 0, bytes, 0, bytes.length);
+        return bytes;
+    }
+
+    public static Snapshot fromBytes(byte[] bytes) throws IOException {
+        if (bytes.length < MIN_LENGTH)
+            throw new IOException("Truncated snapshot");
+        final ByteBuffer buffer = ByteBuffer.wrap(bytes, 0, bytes.length - CHECKSUM_LENGTH);
+        if (buffer.getInt() != MAGIC)
+            throw new IOException("Not a snapshot");
+        final int checksum = ByteBuffer.wrap(bytes, bytes.length - CHECKSUM_LENGTH, CHECKSUM_LENGTH).getInt();
+        if (getChecksum(bytes, bytes.length - CHECKSUM_LENGTH) != checksum)
+            throw new IOException("Corrupt snapshot");
+        final int version = buffer.get();
+        if (version != VERSION)
+            throw new IOException("Unsupported snapshot version " + version);
+        final int code = buffer.get() & 0xff, flags = buffer.get();
+        final Rules rules = Rules.ofCode(code);
+        if (rules == null)
+            throw new IOException("Unsupported shape " + code);
+        final long score, bestScore;
+        try {
+            score = getVarint(buffer);
+            bestScore = getVarint(buffer);
+        } catch (BufferUnderflowException exception) {
+            throw new IOException("Truncated snapshot");
+        }
+        final int columns = rules.getColumns(), cellsCount = rules.getCellsCount();
+        final boolean byteCells = (flags & FLAG_BYTE_CELLS) != 0, keepingGoing = (flags & FLAG_KEEPING_GOING) != 0;
+        final int boardLength = (flags & FLAG_BOARD) == 0 ? 0 : byteCells ? cellsCount : (cellsCount + 1) / 2;
+        if (buffer.remaining() != boardLength)
+            throw new IOException("Corrupt snapshot");
+        final long[] board = boardLength == 0 ? null : rules.newBoard();
+        for (int cell = 0; board != null && cell < cellsCount; cell++) {
+            final int exponent = byteCells ? bytes[buffer.position() + cell]
+                    : bytes[buffer.position() + cell / 2] >>> cell % 2 * RowTable.CELL_BITS & RowTable.CELL_MASK;
+            if (exponent < 0 || exponent > rules.getExponentLimit())
+                throw new IOException("Corrupt snapshot");
+            rules.setExponent(board, cell / columns, cell % columns, exponent);
+        }
+        final Snapshot snapshot = new Snapshot(rules, score, bestScore, board, keepingGoing);
+        snapshot.checksum = checksum;
+        return snapshot;
+    }
+
+    private static void putVarint(ByteBuffer buffer, long value) {
+        for (; (value & ~VARINT_MASK) != 0; value >>>= VARINT_BITS)
+            buffer.put((byte) (value & VARINT_MASK | 1 << VARINT_BITS));
+        buffer.put((byte) value);
+    }
+
+    private static long getVarint(ByteBuffer buffer) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < Long.SIZE; shift += VARINT_BITS) {
+            final int part = buffer.get();
+            value |= (long) (part & VARINT_MASK) << shift;
+            if ((part & 1 << VARINT_BITS) == 0)
+                return value;
+        }
+        throw new IOException("Corrupt snapshot");
+    }
+
+    private static int getChecksum(byte[] bytes, int length) {
+        final CRC32 crc32 = new CRC32();
+        crc32.update(bytes, 0, length);
+        return (int) crc32.getValue();
+    }
+}
@@ -0,0 +1,291 @@
+/*
+ * Project: Game 2048
+ * Last Modified: 10/18/26 7:30 PM
+ *
+ * Copyright (C) 2026 Programmer-Yang_Xun@outlook.com. All Rights Reserved.
+ * Welcome to visit https://GitHub.com/Hydr10n
+ */
+
+package com.hydr10n.game2048.engine;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/*
+ * Suggests a move for a packed board. Expectimax deepens one move at a time until the time or node budget runs out
+ * and answers with the deepest search that completed; Monte-Carlo spreads random rollouts over the legal moves; Greedy
+ * looks one move ahead, at the score gained plus the evaluator's value of the board left, which is how an NTupleNetwork
+ * is trained to play. Positions found in the position table, if one is set for the shape, are answered from it without searching.
+ * Not thread-safe: one search at a time per instance; the evaluator must be thread-safe when searching in parallel.
+ */
+public class Solver {
+    public enum Mode {Expectimax, MonteCarlo, Greedy}
+
+    public static class Result {
+        private final Direction direction;
+        private final int depth;
+        private final long nodes, elapsedNanos, cacheLookups, cacheHits;
+        private final float value;
+        private final boolean fromTable;
+
+        Result(Direction direction, int depth, long nodes, long elapsedNanos, long cacheLookups, long cacheHits, float value, boolean fromTable) {
+            this.direction = direction;
+            this.depth = depth;
+            this.nodes = nodes;
+            this.elapsedNanos = elapsedNanos;
+            this.cacheLookups = cacheLookups;
+            this.cacheHits = cacheHits;
+            this.value = value;
+            this.fromTable = fromTable;
+        }
+
+        // null when no move is possible
+        public Direction getDirection() {
+            return direction;
+        }
+
+        public int getDepth() {
+            return depth;
+        }
+
+        public long getNodes() {
+            return nodes;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        public double getNodesPerSecond() {
+            return elapsedNanos == 0 ? 0 : nodes * 1e9 / elapsedNanos;
+        }
+
+        public double getCacheHitRate() {
+            return cacheLookups == 0 ? 0 : (double) cacheHits / cacheLookups;
+        }
+
+        // of the move, as the search valued it: the evaluator's units for Expectimax and Greedy, the average score for Monte-Carlo
+        public float getValue() {
+            return value;
+        }
+
+        // answered by the position table
+        public boolean isFromTable() {
+            return fromTable;
+        }
+    }
+
+    private static final int ROLLOUT_MAX_MOVES = 1000;
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private final Mode mode;
+    private final int maxDepth;
+    private final long timeBudgetNanos, nodeBudget;
+    private final TranspositionTable transpositionTable;
+    private final ForkJoinPool pool;
+    private final boolean exact;
+    private final Random random;
+    private final double[] rolloutTotals = new double[DIRECTIONS.length];
+    private final int[] rolloutCounts = new int[DIRECTIONS.length];
+
+    private Evaluator evaluator = new HeuristicEvaluator();
+    private SpawnRule spawnRule = SpawnRule.STANDARD;
+    private PositionTable positionTable;
+    private Rules rules;
+    private Expectimax expectimax;
+    private ParallelExpectimax parallelExpectimax;
+    private long[] rolloutBoard, rolloutNextBoard;
+    private long nodes, deadline;
+    private double chosenValue;    // of the move chooseGreedily() or rollout() chose last
+
+    // a budget of Long.MAX_VALUE means unlimited; expectimax runs on the calling thread, pruning unlikely spawns
+    public Solver(Mode mode, int maxDepth, long timeBudgetMillis, long nodeBudget, int cacheCapacityBits, long seed) {
+        this(mode, maxDepth, timeBudgetMillis, nodeBudget, cacheCapacityBits, seed, 1, false);
+    }
+
+    /*
+     * Expectimax runs in exact mode: no probability pruning and only same-depth cache hits, on its own ForkJoinPool with
+     * a parallelism above 1, else on the calling thread. For a fixed depth the suggestion is then the same whatever the
+     * thread count or timing, 1 included.
+     */
+    public Solver(Mode mode, int maxDepth, long timeBudgetMillis, long nodeBudget, int cacheCapacityBits, long seed, int parallelism) {
+        this(mode, maxDepth, timeBudgetMillis, nodeBudget, cacheCapacityBits, seed, parallelism, true);
+    }
+
+    private Solver(Mode mode, int maxDepth, long timeBudgetMillis, long nodeBudget, int cacheCapacityBits, long seed, int parallelism,
+                   boolean exact) {
+        if (maxDepth < 1 || parallelism < 1)
+            throw new IllegalArgumentException();
+        this.exact = exact;
+        this.mode = mode;
+        this.maxDepth = maxDepth;
+        timeBudgetNanos = timeBudgetMillis == Long.MAX_VALUE ? Long.MAX_VALUE : timeBudgetMillis * 1000000;
+        this.nodeBudget = nodeBudget;
+        transpositionTable = new TranspositionTable(cacheCapacityBits);
+        pool = parallelism > 1 && mode == Mode.Expectimax ? new ForkJoinPool(parallelism) : null;
+        random = new Random(seed);
+    }
+
+    public void setEvaluator(Evaluator evaluator) {
+        this.evaluator = evaluator;
+        rules = null;
+    }
+
+    public void setSpawnRule(SpawnRule spawnRule) {
+        this.spawnRule = spawnRule;
+        rules = null;
+    }
+
+    // consulted before every search of its shape; null for none
+    public void setPositionTable(PositionTable positionTable) {
+        this.positionTable = positionTable;
+    }
+
+    // forgets every cached value, so later searches do not depend on earlier ones
+    public void clearCache() {
+        transpositionTable.clear();
+    }
+
+    public void shutdown() {
+        if (pool != null)
+            pool.shutdownNow();
+    }
+
+    public Result search(Rules rules, long[] board) {
+        prepare(rules);
+        final long start = System.nanoTime();
+        deadline = timeBudgetNanos == Long.MAX_VALUE ? Long.MAX_VALUE : start + timeBudgetNanos;
+        nodes = 0;
+        if (positionTable != null && positionTable.getRules() == rules) {
+            final int record = positionTable.find(board);
+            if (record != PositionTable.NOT_FOUND)
+                return new Result(positionTable.getDirection(board, record), 0, 0, System.nanoTime() - start, 0, 0,
+                        positionTable.getValue(record), true);
+        }
+        long cacheLookups = 0, cacheHits = 0;
+        Direction best = null;
+        int depth = 0;
+        float value = 0;
+        if (mode == Mode.Expectimax) {
+            final Expectimax.Budget budget = new Expectimax.Budget(deadline, nodeBudget);
+            while (depth < maxDepth) {
+                final Direction direction;
+                final float depthValue;
+                if (pool == null) {
+                    expectimax.reset(budget);
+                    direction = expectimax.searchRoot(board, depth + 1);
+                    depthValue = expectimax.getRootValue();
+                    nodes += expectimax.getNodes();
+                    cacheLookups += expectimax.getCacheLookups();
+                    cacheHits += expectimax.getCacheHits();
+                } else {
+                    parallelExpectimax.reset(budget);
+                    direction = parallelExpectimax.searchRoot(board, depth + 1);
+                    depthValue = parallelExpectimax.getRootValue();
+                    nodes += parallelExpectimax.getNodes();
+                    cacheLookups += parallelExpectimax.getCacheLookups();
+                    cacheHits += parallelExpectimax.getCacheHits();
+                }
+                if (budget.isExhausted() && depth > 0)
+                    break;
+                best = direction;
+                value = depthValue;
+                depth++;
+                if (budget.isExhausted() || best == null)
+                    break;
+            }
+        } else if (mode == Mode.Greedy) {
+            best = chooseGreedily(board);
+            value = (float) chosenValue;
+            depth = 1;
+        } else {
+            best = rollout(board);
+            value = (float) chosenValue;
+        }
+        return new Result(best, depth, nodes, System.nanoTime() - start, cacheLookups, cacheHits, value, false);
+    }
+
+    private void prepare(Rules rules) {
+        if (this.rules == rules)
+            return;
+        this.rules = rules;
+        transpositionTable.clear();
+        if (pool == null)
+            expectimax = new Expectimax(rules, evaluator, spawnRule, transpositionTable, exact, maxDepth);
+        else
+            parallelExpectimax = new ParallelExpectimax(rules, evaluator, spawnRule, transpositionTable, pool);
+        rolloutBoard = rules.newBoard();
+        rolloutNextBoard = rules.newBoard();
+    }
+
+    private Direction chooseGreedily(long[] board) {
+        Direction best = null;
+        float bestValue = 0;
+        for (Direction direction : DIRECTIONS) {
+            final long gained = rules.move(board, rolloutBoard, direction);
+            if (gained == Rules.NO_MOVE)
+                continue;
+            nodes++;
+            final float value = gained + evaluator.evaluate(rules, rolloutBoard);
+            if (best == null || value > bestValue) {
+                bestValue = value;
+                best = direction;
+            }
+        }
+        chosenValue = bestValue;
+        return best;
+    }
+
+    // average score gained by random play after each first move; every legal move gets at least one rollout
+    private Direction rollout(long[] board) {
+        for (int i = 0; i < DIRECTIONS.length; i++) {
+            rolloutTotals[i] = 0;
+            rolloutCounts[i] = 0;
+        }
+        boolean any = false;
+        do {
+            for (int i = 0; i < DIRECTIONS.length; i++) {
+                final long gained = rules.move(board, rolloutBoard, DIRECTIONS[i]);
+                if (gained == Rules.NO_MOVE)
+                    continue;
+                any = true;
+                rolloutTotals[i] += gained + playRandomly();
+                rolloutCounts[i]++;
+            }
+        } while (any && nodes < nodeBudget && System.nanoTime() < deadline);
+        Direction best = null;
+        double bestValue = -1;
+        for (int i = 0; i < DIRECTIONS.length; i++)
+            if (rolloutCounts[i] > 0 && rolloutTotals[i] / rolloutCounts[i] > bestValue) {
+                bestValue = rolloutTotals[i] / rolloutCounts[i];
+                best = DIRECTIONS[i];
+            }
+        chosenValue = bestValue;
+        return best;
+    }
+
+    private long playRandomly() {
+        long score = 0;
+        for (int moves = 0; moves < ROLLOUT_MAX_MOVES; moves++) {
+            addRandomTile(rolloutBoard);
+            final int legalDirections = rules.getLegalDirections(rolloutBoard), first = random.nextInt(DIRECTIONS.length);
+            nodes++;
+            if (legalDirections == 0)
+                break;
+            int i = first;
+            while ((legalDirections & 1 << i) == 0)
+                i = (i + 1) % DIRECTIONS.length;
+            final long gained = rules.move(rolloutBoard, rolloutNextBoard, DIRECTIONS[i]);
+            final long[] temp = rolloutBoard;
+            rolloutBoard = rolloutNextBoard;
+            rolloutNextBoard = temp;
+            score += gained;
+        }
+        return score;
+    }
+
+    private void addRandomTile(long[] board) {
+        final int columns = rules.getColumns(), cell = rules.getEmptyCell(board, random.nextInt(rules.countEmpty(board)));
+        rules.setExponent(board, cell / columns, cell % columns, spawnRule.nextExponent(random));
+    }
+}
@@ -0,0 +1,33 @@
+/*
+ * Project: Game 2048
+ * Last Modified: 10/17/26 10:12 PM
+ *
+ * Copyright (C) 2026 Programmer-Yang_Xun@outlook.com. All Rights Reserved.
+ * Welcome to visit https://GitHub.com/Hydr10n
+ */
+
+package com.hydr10n.game2048.engine;
+
+import java.util.Random;
+
+// which tile appears after a move: a 4 with the given probability, a 2 otherwise
+public final class SpawnRule {
+    public static final SpawnRule TWOS_ONLY = new SpawnRule(0), STANDARD = new SpawnRule(0.1f);
+
+    private final float fourProbability;
+
+    public SpawnRule(float fourProbability) {
+        if (!(fourProbability >= 0 && fourProbability <= 1))
+            throw new IllegalArgumentException();
+        this.fourProbability = fourProbability;
+    }
+
+    public float getFourProbability() {
+        return fourProbability;
+    }
+
+    // TWOS_ONLY draws nothing from random
+    public int nextExponent(Random random) {
+        return fourProbability > 0 && random.nextFloat() < fourProbability ? 2 : 1;
+    }
+}
@@ -0,0 +1,487 @@
+/*
+ * Project: Game 2048
+ * Last Modified: 10/18/26 6:10 PM
+ *
+ * Copyright (C) 2026 Programmer-Yang_Xun@outlook.com. All Rights Reserved.
+ * Welcome to visit https://GitHub.com/Hydr10n
+ */
+
+package com.hydr10n.game2048.engine;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileFilter;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Decisions of played games for training models: per move the board it was made on, the Direction, the score it gained
+ * and the final score of its game, in files of columnar chunks. A chunk is a HEADER_BYTES header (MAGIC "TDC1", rules code,
+ * rows, 0), then its columns one after another, little-endian: boards (wordCount longs a row), outcomes (long), rewards
+ * (int, saturated), moves (byte, the ordinal), padded to 8 bytes. Rows of a game are consecutive, though they may span chunks and files.
+ *
+ * Writers fill fixed-size direct buffers, a whole Episode at a time, and hand each full one to their own thread, which
+ * writes it with one gathering write and recycles it; once all buffers are queued, write() blocks until one comes back,
+ * so a producer faster than the disk is slowed down rather than buffered without bound. Files are rotated by size.
+ * Readers map a file and view each chunk's columns in place.
+ */
+public final class TrainingData {
+    // a game's moves, recorded before its outcome is known
+    public static final class Episode {
+        private final Rules rules;
+        private long[] boards;
+        private long[] rewards;
+        private byte[] moves;
+        private int size;
+
+        public Episode(Rules rules) {
+            this.rules = rules;
+            moves = new byte[INITIAL_EPISODE_ROWS];
+            rewards = new long[INITIAL_EPISODE_ROWS];
+            boards = new long[INITIAL_EPISODE_ROWS * rules.getWordCount()];
+        }
+
+        public Rules getRules() {
+            return rules;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        // board: before the move; reward: the score the move gained
+        public void add(long[] board, Direction direction, long reward) {
+            if (size == moves.length) {
+                moves = Arrays.copyOf(moves, size * 2);
+                rewards = Arrays.copyOf(rewards, size * 2);
+                boards = Arrays.copyOf(boards, boards.length * 2);
+            }
+            System.arraycopy(board, 0, boards, size * board.length, board.length);
+            moves[size] = (byte) direction.ordinal();
+            rewards[size++] = reward;
+        }
+
+        public void clear() {
+            size = 0;
+        }
+    }
+
+    public static final class Writer implements Closeable {
+        private final File directory;
+        private final String prefix;
+        private final long fileBytes;
+        private final int keepFiles, buffersCount;
+        private final BlockingQueue<ChunkBuffer> free, full;
+        private final AtomicLong rowsCount = new AtomicLong(), stallsCount = new AtomicLong();
+        private final Thread thread;
+        private ChunkBuffer current;
+        private volatile IOException failure;
+        private boolean closed;
+
+        // writer thread's
+        private int fileNumber;
+        private RandomAccessFile file;
+        private FileChannel channel;
+
+        /*
+         * Files are named prefix-NNNNNN.tdc in directory, numbered on from those already there; keepFiles > 0 deletes the
+         * oldest beyond that many. chunkBytes: of each of the buffers; fileBytes: a file is not grown past it by another chunk.
+         */
+        public Writer(File directory, String prefix, int chunkBytes, int buffers, long fileBytes, int keepFiles) {
+            if (buffers <= 0 || chunkBytes < MIN_CHUNK_BYTES || fileBytes < chunkBytes || fileBytes > Integer.MAX_VALUE)
+                throw new IllegalArgumentException();
+            this.directory = directory;
+            this.prefix = prefix;
+            this.fileBytes = fileBytes;
+            this.keepFiles = keepFiles;
+            buffersCount = buffers;
+            free = new ArrayBlockingQueue<>(buffers);
+            full = new ArrayBlockingQueue<>(buffers + 1);
+            for (int i = 0; i < buffers; i++)
+                free.add(new ChunkBuffer(chunkBytes));
+            for (File existing : listFiles(directory, prefix))
+                fileNumber = Math.max(fileNumber, getFileNumber(existing, prefix));
+            thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    drain();
+                }
+            }, "TrainingData.Writer");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        // every row of the episode, with outcome as its final score or NO_OUTCOME; the episode is left as it was
+        public synchronized void write(Episode episode, long outcome) throws IOException {
+            checkOpen();
+            final int words = episode.rules.getWordCount();
+            for (int row = 0; row < episode.size; ) {
+                if (current != null && (current.rules != episode.rules || current.rows == current.capacity))
+                    seal();
+                if (current == null)
+                    current = takeFree(episode.rules);
+                final int count = Math.min(episode.size - row, current.capacity - current.rows);
+                current.boards.put(episode.boards, row * words, count * words);
+                current.moves.put(episode.moves, row, count);
+                for (int i = row; i < row + count; i++) {
+                    current.rewards.put((int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, episode.rewards[i])));
+                    current.outcomes.put(outcome);
+                }
+                current.rows += count;
+                row += count;
+            }
+            rowsCount.addAndGet(episode.size);
+        }
+
+        // waits until every row written so far is in the file
+        public synchronized void flush() throws IOException {
+            checkOpen();
+            if (current != null)
+                seal();
+            awaitWritten();
+        }
+
+        @Override
+        public synchronized void close() throws IOException {
+            if (closed)
+                return;
+            try {
+                if (current != null && failure == null)
+                    seal();
+                awaitWritten();
+            } finally {
+                closed = true;
+                thread.interrupt();
+                try {
+                    thread.join();
+                } catch (InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+                }
+                closeFile();
+            }
+        }
+
+        public AtomicLong getRowsCount() {
+            return rowsCount;
+        }
+
+        // of write() finding every buffer queued and waiting for one
+        public AtomicLong getStallsCount() {
+            return stallsCount;
+        }
+
+        private void checkOpen() throws IOException {
+            if (failure != null)
+                throw failure;
+            if (closed)
+                throw new IOException("closed");
+        }
+
+        private ChunkBuffer takeFree(Rules rules) throws IOException {
+            ChunkBuffer buffer = free.poll();
+            if (buffer == null) {
+                stallsCount.incrementAndGet();
+                try {
+                    while ((buffer = free.poll(STALL_CHECK_MILLIS, TimeUnit.MILLISECONDS)) == null)
+                        checkOpen();
+                } catch (InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException();
+                }
+            }
+            buffer.start(rules);
+            return buffer;
+        }
+
+        private void seal() {
+            current.seal();
+            full.add(current);
+            current = null;
+        }
+
+        private void awaitWritten() throws IOException {
+            try {
+                synchronized (free) {
+                    while (free.size() < buffersCount && failure == null)
+                        free.wait(STALL_CHECK_MILLIS);
+                }
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException();
+            }
+            if (failure != null)
+                throw failure;
+        }
+
+        // the writer thread, until interrupted with nothing left to write
+        private void drain() {
+            while (true) {
+                final ChunkBuffer buffer;
+                try {
+                    buffer = full.take();
+                } catch (InterruptedException exception) {
+                    return;
+                }
+                try {
+                    if (failure == null)
+                        writeChunk(buffer);
+                } catch (IOException exception) {
+                    failure = exception;
+                }
+                synchronized (free) {
+                    free.add(buffer);
+                    free.notifyAll();
+                }
+            }
+        }
+
+        private void writeChunk(ChunkBuffer buffer) throws IOException {
+            final ByteBuffer[] slices = buffer.getSlices();
+            long length = 0;
+            for (ByteBuffer slice : slices)
+                length += slice.remaining();
+            if (channel == null || channel.position() > 0 && channel.position() + length > fileBytes)
+                rotate();
+            while (length > 0)
+                length -= channel.write(slices);
+        }
+
+        private void rotate() throws IOException {
+            closeFile();
+            // past numbers another writer of the prefix took since, e.g. one still closing
+            File next;
+            do
+                next = new File(directory, String.format(Locale.ROOT, "%s-%06d.%s", prefix, ++fileNumber, EXTENSION));
+            while (!next.createNewFile());
+            file = new RandomAccessFile(next, "rw");
+            channel = file.getChannel();
+            if (keepFiles <= 0)
+                return;
+            final File[] files = listFiles(directory, prefix);
+            for (int i = 0; i < files.length - keepFiles; i++)
+                if (!files[i].delete())
+                    throw new IOException("cannot delete " + files[i]);
+        }
+
+        private void closeFile() {
+            if (file == null)
+                return;
+            try {
+                file.close();
+            } catch (IOException exception) {
+                if (failure == null)
+                    failure = exception;
+            }
+            file = null;
+            channel = null;
+        }
+    }
+
+    // one chunk of a file, its columns viewed in place
+    public static final class Chunk {
+        private final Rules rules;
+        private final int size;
+        private final LongBuffer boards, outcomes;
+        private final IntBuffer rewards;
+        private final ByteBuffer moves;
+
+        private Chunk(Rules rules, int size, ByteBuffer columns) {
+            this.rules = rules;
+            this.size = size;
+            final int words = rules.getWordCount();
+            boards = slice(columns, 0, size * words * Long.BYTES).asLongBuffer();
+            outcomes = slice(columns, size * words * Long.BYTES, size * Long.BYTES).asLongBuffer();
+            rewards = slice(columns, size * (words + 1) * Long.BYTES, size * Integer.BYTES).asIntBuffer();
+            moves = slice(columns, size * ((words + 1) * Long.BYTES + Integer.BYTES), size);
+        }
+
+        public Rules getRules() {
+            return rules;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        // wordCount longs a row
+        public LongBuffer getBoards() {
+            return boards.duplicate();
+        }
+
+        public LongBuffer getOutcomes() {
+            return outcomes.duplicate();
+        }
+
+        public IntBuffer getRewards() {
+            return rewards.duplicate();
+        }
+
+        // Direction ordinals
+        public ByteBuffer getMoves() {
+            return moves.duplicate();
+        }
+
+        public void getBoard(int row, long[] board) {
+            for (int word = 0; word < board.length; word++)
+                board[word] = boards.get(row * board.length + word);
+        }
+
+        public Direction getDirection(int row) {
+            return DIRECTIONS[moves.get(row) & 3];
+        }
+
+        public int getReward(int row) {
+            return rewards.get(row);
+        }
+
+        public long getOutcome(int row) {
+            return outcomes.get(row);
+        }
+    }
+
+    // a writer's buffer: columns placed for capacity rows of one shape, so a full chunk needs no copying to be written
+    private static final class ChunkBuffer {
+        private final ByteBuffer bytes;
+        Rules rules;
+        int capacity, rows;
+        LongBuffer boards, outcomes;
+        IntBuffer rewards;
+        ByteBuffer moves;
+
+        ChunkBuffer(int chunkBytes) {
+            bytes = ByteBuffer.allocateDirect(chunkBytes).order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        void start(Rules rules) {
+            this.rules = rules;
+            final int words = rules.getWordCount();
+            capacity = (bytes.capacity() - HEADER_BYTES - PADDING) / getRowBytes(words);
+            rows = 0;
+            boards = slice(bytes, getBoardsOffset(), capacity * words * Long.BYTES).asLongBuffer();
+            outcomes = slice(bytes, getOutcomesOffset(), capacity * Long.BYTES).asLongBuffer();
+            rewards = slice(bytes, getRewardsOffset(), capacity * Integer.BYTES).asIntBuffer();
+            moves = slice(bytes, getMovesOffset(), capacity);
+        }
+
+        void seal() {
+            bytes.putInt(0, MAGIC).putInt(Integer.BYTES, rules.getCode()).putInt(2 * Integer.BYTES, rows).putInt(3 * Integer.BYTES, 0);
+            final int padding = getPadding(rows);
+            for (int i = 0; i < padding; i++)
+                bytes.put(getMovesOffset() + rows + i, (byte) 0);
+        }
+
+        // header and the filled part of each column, to be written in that order
+        ByteBuffer[] getSlices() {
+            final int words = rules.getWordCount();
+            return new ByteBuffer[]{slice(bytes, 0, HEADER_BYTES), slice(bytes, getBoardsOffset(), rows * words * Long.BYTES),
+                    slice(bytes, getOutcomesOffset(), rows * Long.BYTES), slice(bytes, getRewardsOffset(), rows * Integer.BYTES),
+                    slice(bytes, getMovesOffset(), rows + getPadding(rows))};
+        }
+
+        private int getBoardsOffset() {
+            return HEADER_BYTES;
+        }
+
+        private int getOutcomesOffset() {
+            return getBoardsOffset() + capacity * rules.getWordCount() * Long.BYTES;
+        }
+
+        private int getRewardsOffset() {
+            return getOutcomesOffset() + capacity * Long.BYTES;
+        }
+
+        private int getMovesOffset() {
+            return getRewardsOffset() + capacity * Integer.BYTES;
+        }
+    }
+
+    public static final long NO_OUTCOME = -1;    // of a game left unfinished
+    public static final String EXTENSION = "tdc";
+    private static final int MAGIC = 0x31434454, HEADER_BYTES = 16, PADDING = Long.BYTES - 1;    // "TDC1"
+    private static final int MIN_CHUNK_BYTES = 4096, INITIAL_EPISODE_ROWS = 256;
+    private static final long STALL_CHECK_MILLIS = 100;
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private TrainingData() {
+    }
+
+    // the complete chunks of a file, in order; a torn last chunk, as a crash leaves it, is ignored
+    public static List<Chunk> read(File file) throws IOException {
+        final List<Chunk> chunks = new ArrayList<>();
+        final ByteBuffer bytes;
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r")) {
+            final FileChannel channel = randomAccessFile.getChannel();
+            if (channel.size() > Integer.MAX_VALUE)
+                throw new IOException("too large " + channel.size());
+            bytes = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()).order(ByteOrder.LITTLE_ENDIAN);
+        }
+        for (int position = 0; position + HEADER_BYTES <= bytes.limit(); ) {
+            if (bytes.getInt(position) != MAGIC)
+                throw new IOException("not training data at " + position);
+            final int code = bytes.getInt(position + Integer.BYTES), rows = bytes.getInt(position + 2 * Integer.BYTES);
+            final Rules rules = Rules.ofCode(code);
+            if (rules == null || rows < 0)
+                throw new IOException("bad chunk at " + position);
+            final long length = (long) rows * getRowBytes(rules.getWordCount()) + getPadding(rows);
+            if (position + HEADER_BYTES + length > bytes.limit())
+                break;
+            chunks.add(new Chunk(rules, rows, slice(bytes, position + HEADER_BYTES, (int) length)));
+            position += HEADER_BYTES + (int) length;
+        }
+        return chunks;
+    }
+
+    // a writer's files of prefix in directory, oldest first
+    public static File[] listFiles(File directory, final String prefix) {
+        final File[] files = directory.listFiles(new FileFilter() {
+            @Override
+            public boolean accept(File file) {
+                return getFileNumber(file, prefix) > 0;
+            }
+        });
+        if (files == null)
+            return new File[0];
+        Arrays.sort(files);
+        return files;
+    }
+
+    private static int getFileNumber(File file, String prefix) {
+        final String name = file.getName(), suffix = '.' + EXTENSION;
+        if (!name.startsWith(prefix + '-') || !name.endsWith(suffix))
+            return 0;
+        try {
+            return Integer.parseInt(name.substring(prefix.length() + 1, name.length() - suffix.length()));
+        } catch (NumberFormatException exception) {
+            return 0;
+        }
+    }
+
+    private static int getRowBytes(int words) {
+        return words * Long.BYTES + Long.BYTES + Integer.BYTES + 1;
+    }
+
+    // after the moves column, so the next chunk starts 8-byte aligned
+    private static int getPadding(int rows) {
+        return -rows & PADDING;
+    }
+
+    private static ByteBuffer slice(ByteBuffer bytes, int offset, int length) {
+        final ByteBuffer view = bytes.duplicate();
+        view.limit(offset + length).position(offset);
+        return view.slice().order(ByteOrder.LITTLE_ENDIAN);
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Project: Game 2048
+ * Last Modified: 10/18/26 10:30 PM
+ *
+ * Copyright (C) 2026 Programmer-Yang_Xun@outlook.com. All Rights Reserved.
+ * Welcome to visit https://GitHub.com/Hydr10n
+ */
+
+package com.hydr10n.game2048.engine;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/*
+ * Direct-mapped, always-replace cache of chance node values, shared lock-free between search threads:
+ * a slot holds (key ^ data, data), so a slot torn by concurrent writers simply fails the key check.
+ * 4 x 4 boards are keyed by their canonical symmetric image, so the 8 images of a position share one slot. Searches must then
+ * value that image rather than the board they reached: the images' float values differ in rounding, and otherwise
+ * whichever image was cached first would decide what the others read, and thread scheduling would decide that.
+ */
+final class TranspositionTable {
+    private static final long MULTIPLIER = 0x9e3779b97f4a7c15L;
+
+    private final int shift;
+    private final AtomicLongArray slots;
+
+    TranspositionTable(int capacityBits) {
+        shift = Long.SIZE - capacityBits;
+        slots = new AtomicLongArray(2 << capacityBits);
+    }
+
+    // whether getKey() is the canonical Bitboard itself
+    static boolean isCanonical(Rules rules, long[] board) {
+        return rules.isBitboard(board);
+    }
+
+    // exact for a single-word board, a 64-bit hash otherwise
+    static long getKey(Rules rules, long[] board) {
+        if (isCanonical(rules, board))
+            return Bitboard.canonicalize(board[0]);
+        long key = board[0];
+        for (int i = 1; i < board.length; i++)
+            key = Long.rotateLeft(key * MULTIPLIER, 31) ^ board[i];
+        return key;
+    }
+
+    // returns NaN unless the board was searched as deep (exactly as deep if exactDepth), which keeps parallel searches deterministic
+    float get(long key, int depth, boolean exactDepth) {
+        final int index = getIndex(key);
+        final long data = slots.get(index + 1);
+        final int storedDepth = (int) data & 0xff;
+        if (storedDepth == 0 || (slots.get(index) ^ data) != key || (exactDepth ? storedDepth != depth : storedDepth < depth))
+            return Float.NaN;
+        return Float.intBitsToFloat((int) (data >>> 32));
+    }
+
+    void put(long key, int depth, float value) {
+        final int index = getIndex(key);
+        final long data = (long) Float.floatToRawIntBits(value) << 32 | depth & 0xff;
+        slots.lazySet(index, key ^ data);
+        slots.lazySet(index + 1, data);
+    }
+
+    void clear() {
+        for (int i = 0; i < slots.length(); i++)
+            slots.lazySet(i, 0);
+    }
+
+    private int getIndex(long key) {
+        return (int) (key * MULTIPLIER >>> shift) << 1;
+    }
+}
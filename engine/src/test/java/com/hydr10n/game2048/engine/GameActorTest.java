@@ -0,0 +1,158 @@
+/*
+ * Project: Game 2048
+ * Last Modified: 10/18/26 9:00 PM
+ *
+ * Copyright (C) 2026 Programmer-Yang_Xun@outlook.com. All Rights Reserved.
+ * Welcome to visit https://GitHub.com/Hydr10n
+ */
+
+package com.hydr10n.game2048.engine;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/*
+ * The stress test fires moves at a GameActor from several threads at once while another thread reads the frames it publishes.
+ * The actor logs the order it ran the moves in; replaying that order on a plain Game must give the same final frame,
+ * every submitted move must have run, and every frame read must be consistent and no older than the one read before.
+ * A move finding the game over starts a new game seeded by the move's position in the log, to keep games going.
+ */
+public class GameActorTest {
+    private static final int THREADS = 4, MOVES_PER_THREAD = 50000;
+    private static final long SEED = 2048, TIMEOUT_SECONDS = 60;
+
+    private final Rules rules = Rules.of(4);
+    private final Direction[] log = new Direction[THREADS * MOVES_PER_THREAD];
+    private final AtomicLong framesPublished = new AtomicLong();
+    private int logged;
+    private volatile boolean producing = true;
+
+    @Test
+    public void concurrentMovesMatchSequentialReplay() throws InterruptedException {
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        final Game game = new Game(rules, SEED, SpawnRule.STANDARD);
+        game.newGame(null);
+        final GameActor actor = new GameActor(game, executor, new GameActor.Listener() {
+            @Override
+            public void onFrame(GameFrame frame) {
+                framesPublished.incrementAndGet();
+            }
+        });
+        final GameActor.Command[] commands = new GameActor.Command[Direction.values().length];
+        for (final Direction direction : Direction.values())
+            commands[direction.ordinal()] = new GameActor.Command() {
+                @Override
+                public GameFrame.Change execute(Game game, MoveListener listener) {
+                    final long position = logged;
+                    log[logged++] = direction;
+                    return apply(game, direction, position, listener);
+                }
+            };
+        final boolean[] readerFailed = new boolean[1];
+        final Thread reader = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                readerFailed[0] = !readFrames(actor);
+            }
+        });
+        reader.start();
+        final Thread[] producers = new Thread[THREADS];
+        for (int i = 0; i < THREADS; i++) {
+            final Random random = new Random(SEED + i);
+            producers[i] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int j = 0; j < MOVES_PER_THREAD; j++)
+                        actor.submit(commands[random.nextInt(commands.length)]);
+                }
+            });
+            producers[i].start();
+        }
+        for (Thread producer : producers)
+            producer.join();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        producing = false;
+        reader.join();
+        assertEquals("moves run", log.length, logged);
+        final Game expected = new Game(rules, SEED, SpawnRule.STANDARD);
+        expected.newGame(null);
+        long changes = 0;
+        for (int i = 0; i < logged; i++)
+            if (apply(expected, log[i], i, null) != null)
+                changes++;
+        final GameFrame frame = actor.getFrame();
+        assertTrue("final board", Arrays.equals(expected.getBoard(), frame.getBoard()));
+        assertEquals("final score", expected.getScore(), frame.getScore());
+        assertEquals("final version", changes, frame.getVersion());
+        assertEquals("frames published", changes, framesPublished.get());
+        assertTrue("frames read consistently", !readerFailed[0]);
+    }
+
+    // as a load command meeting a corrupt save would
+    @Test
+    public void commandsAfterOneThatThrowsStillRun() throws InterruptedException {
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        final Executor quietExecutor = new Executor() {
+            @Override
+            public void execute(final Runnable command) {
+                executor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            command.run();
+                        } catch (IllegalStateException expected) {
+                        }
+                    }
+                });
+            }
+        };
+        final CountDownLatch published = new CountDownLatch(1);
+        final GameActor actor = new GameActor(new Game(Rules.of(4), SEED, SpawnRule.STANDARD), quietExecutor, new GameActor.Listener() {
+            @Override
+            public void onFrame(GameFrame frame) {
+                published.countDown();
+            }
+        });
+        actor.submit(new GameActor.Command() {
+            @Override
+            public GameFrame.Change execute(Game game, MoveListener listener) {
+                throw new IllegalStateException();
+            }
+        });
+        actor.newGame(SEED);
+        assertTrue(published.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        assertEquals(GameFrame.Change.NewGame, actor.getFrame().getChange());
+        executor.shutdown();
+    }
+
+    private static GameFrame.Change apply(Game game, Direction direction, long position, MoveListener listener) {
+        if (game.isOver() || game.isWon()) {
+            game.newGame(position, listener);
+            return GameFrame.Change.NewGame;
+        }
+        return game.move(direction, listener) ? GameFrame.Change.Move : null;
+    }
+
+    private boolean readFrames(GameActor actor) {
+        long version = -1;
+        boolean consistent = true;
+        while (producing) {
+            final GameFrame frame = actor.getFrame();
+            consistent &= frame.getVersion() >= version && frame.getLegalDirections() == rules.getLegalDirections(frame.getBoard());
+            version = frame.getVersion();
+        }
+        return consistent;
+    }
+}
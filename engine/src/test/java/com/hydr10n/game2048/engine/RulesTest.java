@@ -0,0 +1,116 @@
+/*
+ * Project: Game 2048
+ * Last Modified: 10/18/26 10:30 PM
+ *
+ * Copyright (C) 2026 Programmer-Yang_Xun@outlook.com. All Rights Reserved.
+ * Welcome to visit https://GitHub.com/Hydr10n
+ */
+
+package com.hydr10n.game2048.engine;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/*
+ * Rules.move(), its score and getLegalDirections() against a plain cell-by-cell slide, on random boards of every shape:
+ * Bitboard, RowTable lines and 5-bit cells all have to agree with it, as does a 4 x 4 board moving out of its Bitboard.
+ */
+public class RulesTest {
+    private static final int BOARDS_PER_SHAPE = 2000, SMALL_EXPONENT_LIMIT = 4;
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    @Test
+    public void moveMatchesCellByCellSlide() {
+        final Random random = new Random(1);
+        for (int rows = Rules.MIN_SIZE; rows <= Rules.MAX_SIZE; rows++)
+            for (int columns = Rules.MIN_SIZE; columns <= Rules.MAX_SIZE; columns++) {
+                final Rules rules = Rules.of(rows, columns);
+                final long[] board = rules.newBoard(), result = rules.newBoard();
+                final int[][] cells = new int[rows][columns];
+                for (int i = 0; i < BOARDS_PER_SHAPE; i++) {
+                    fillRandomly(rules, board, cells, random);
+                    int legalDirections = 0;
+                    for (Direction direction : DIRECTIONS) {
+                        final int[][] expected = new int[rows][];
+                        for (int row = 0; row < rows; row++)
+                            expected[row] = cells[row].clone();
+                        final long expectedScore = slide(expected, direction, rules.getExponentLimit());
+                        final long score = rules.move(board, result, direction);
+                        final String message = rules + " " + direction + " board " + i;
+                        if (expectedScore == Rules.NO_MOVE) {
+                            assertEquals(message, Rules.NO_MOVE, score);
+                            continue;
+                        }
+                        legalDirections |= 1 << direction.ordinal();
+                        assertEquals(message, expectedScore, score);
+                        for (int row = 0; row < rows; row++)
+                            for (int column = 0; column < columns; column++)
+                                assertEquals(message + " cell " + row + "," + column, expected[row][column],
+                                        rules.getExponent(result, row, column));
+                    }
+                    assertEquals(rules + " board " + i, legalDirections, rules.getLegalDirections(board));
+                }
+            }
+    }
+
+    // small exponents, so lines merge often, exponents around where a 4 x 4 board leaves its Bitboard, or up to the limit,
+    // where merging stops
+    private static void fillRandomly(Rules rules, long[] board, int[][] cells, Random random) {
+        final int limit = rules.getExponentLimit(), emptyPercent = random.nextInt(100);
+        final int range = random.nextInt(3);
+        for (int word = 0; word < board.length; word++)
+            board[word] = 0;
+        for (int row = 0; row < rules.getRows(); row++)
+            for (int column = 0; column < rules.getColumns(); column++) {
+                final int exponent = random.nextInt(100) < emptyPercent ? 0
+                        : range == 0 ? 1 + random.nextInt(SMALL_EXPONENT_LIMIT)
+                        : range == 1 ? Math.min(limit, RowTable.MAX_EXPONENT - 2 + random.nextInt(SMALL_EXPONENT_LIMIT))
+                        : limit - random.nextInt(SMALL_EXPONENT_LIMIT);
+                cells[row][column] = exponent;
+                rules.setExponent(board, row, column, exponent);
+            }
+    }
+
+    // slides every line of cells toward direction in place and returns the score gained, or NO_MOVE if nothing moved
+    private static long slide(int[][] cells, Direction direction, int limit) {
+        final int rows = cells.length, columns = cells[0].length;
+        final boolean horizontal = direction == Direction.Left || direction == Direction.Right,
+                reversed = direction == Direction.Right || direction == Direction.Down;
+        final int lines = horizontal ? rows : columns, length = horizontal ? columns : rows;
+        long score = 0;
+        boolean moved = false;
+        for (int line = 0; line < lines; line++) {
+            final int[] before = new int[length], after = new int[length];
+            for (int index = 0; index < length; index++) {
+                final int position = reversed ? length - 1 - index : index;
+                before[index] = horizontal ? cells[line][position] : cells[position][line];
+            }
+            int count = 0;
+            boolean mergeable = false;
+            for (int exponent : before) {
+                if (exponent == 0)
+                    continue;
+                if (mergeable && after[count - 1] == exponent && exponent < limit) {
+                    after[count - 1] = exponent + 1;
+                    score += 1L << exponent + 1;
+                    mergeable = false;
+                } else {
+                    after[count++] = exponent;
+                    mergeable = true;
+                }
+            }
+            for (int index = 0; index < length; index++) {
+                moved |= after[index] != before[index];
+                final int position = reversed ? length - 1 - index : index;
+                if (horizontal)
+                    cells[line][position] = after[index];
+                else
+                    cells[position][line] = after[index];
+            }
+        }
+        return moved ? score : Rules.NO_MOVE;
+    }
+}
@@ -0,0 +1,335 @@
+/*
+ * Project: Game 2048
+ * Last Modified: 10/18/26 10:30 PM
+ *
+ * Copyright (C) 2026 Programmer-Yang_Xun@outlook.com. All Rights Reserved.
+ * Welcome to visit https://GitHub.com/Hydr10n
+ */
+
+package com.hydr10n.game2048.simulator;
+
+import com.hydr10n.game2048.engine.Direction;
+import com.hydr10n.game2048.engine.PositionTable;
+import com.hydr10n.game2048.engine.Rules;
+import com.hydr10n.game2048.engine.Solver;
+import com.hydr10n.game2048.engine.SpawnRule;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/*
+ * Solves a small board exactly: the chance of reaching the --goal tile with best play, from every position reachable on
+ * the way, e.g.
+ * java -cp simulator.jar com.hydr10n.game2048.simulator.ExactSolver --size 3 --goal 256 --out exact3.table
+ * A spawn adds 2 or 4 to the tile sum and a move keeps it, so positions fall into layers by tile sum, each leading only
+ * to the next two. A forward pass finds the layers in turn from the starting positions; a retrograde pass then values
+ * them from the last back to the first, each layer split across the threads, since its positions only read the finished
+ * layers after it. Positions are the boards players move on, keyed as a PositionTable keys them, so 4 x 4 boards once for
+ * all 8 symmetries; each layer is a LongLongMap from key to encoded best move and value, 16 bytes a slot.
+ * The result is written as a PositionTable. With --sample N, as many positions drawn from it are also searched by the
+ * expectimax Solver at --depth, measuring how often its move is a best one and how much chance it gives away.
+ */
+public final class ExactSolver {
+    private static final Direction[] DIRECTIONS = Direction.values();
+    private static final int CACHE_CAPACITY_BITS = 16, MAX_GOAL = 16384;    // keys are 4-bit cells, which a 4 x 4 board leaves at 32768
+    private static final double TOLERANCE = 1e-6;
+    private static final long MISSING = -1;    // no encode()d record
+
+    private final Rules rules;
+    private final int goalExponent;
+    private final float twoProbability, fourProbability;
+    private final LongLongMap[] layers;    // by tile sum / 2
+    private final ExecutorService executor;
+    private final int threads;
+
+    private ExactSolver(Rules rules, int goalExponent, SpawnRule spawnRule, int threads) {
+        this.rules = rules;
+        this.goalExponent = goalExponent;
+        fourProbability = spawnRule.getFourProbability();
+        twoProbability = 1 - fourProbability;
+        layers = new LongLongMap[(rules.getCellsCount() << goalExponent - 1) / 2 + 3];
+        this.threads = threads;
+        executor = Executors.newFixedThreadPool(threads);
+    }
+
+    public static void main(String[] args) throws InterruptedException, ExecutionException, IOException {
+        Rules rules = Rules.of(3);
+        int goal = 256, threads = Runtime.getRuntime().availableProcessors(), samples = 0, depth = 3;
+        long seed = System.nanoTime();
+        float fourProbability = SpawnRule.STANDARD.getFourProbability();
+        File output = null;
+        try {
+            for (int i = 0; i < args.length; i += 2) {
+                final String value = args[i + 1];
+                switch (args[i]) {
+                    case "--size":
+                        rules = Rules.parse(value);
+                        break;
+                    case "--goal":
+                        goal = Integer.parseInt(value);
+                        break;
+                    case "--threads":
+                        threads = Integer.parseInt(value);
+                        break;
+                    case "--four-probability":
+                        fourProbability = Float.parseFloat(value);
+                        break;
+                    case "--sample":
+                        samples = Integer.parseInt(value);
+                        break;
+                    case "--depth":
+                        depth = Integer.parseInt(value);
+                        break;
+                    case "--seed":
+                        seed = Long.parseLong(value);
+                        break;
+                    case "--out":
+                        output = new File(value);
+                        break;
+                    default:
+                        throw new IllegalArgumentException(args[i]);
+                }
+            }
+            if (!PositionTable.supports(rules) || Integer.bitCount(goal) != 1 || goal < 8 || goal > MAX_GOAL)
+                throw new IllegalArgumentException();
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException exception) {
+            System.err.println("usage: ExactSolver [--size N|RxC] [--goal G] [--threads T] [--four-probability P] [--sample N] [--depth D] " +
+                    "[--seed S] [--out FILE]; the board must fit 64 bits and the goal be a power of 2 from 8 to " + MAX_GOAL);
+            System.exit(1);
+        }
+        final ExactSolver solver = new ExactSolver(rules, Integer.numberOfTrailingZeros(goal), new SpawnRule(fourProbability), threads);
+        try {
+            solver.run(goal, output, samples, depth, seed);
+        } finally {
+            solver.executor.shutdown();
+        }
+    }
+
+    private void run(int goal, File output, int samples, int depth, long seed) throws InterruptedException, ExecutionException, IOException {
+        System.out.printf("size %s  goal %d  4s %.2f  threads %d%n", rules, goal, fourProbability, threads);
+        long start = System.nanoTime();
+        final long count = enumerate();
+        System.out.printf("%d positions in %d layers found in %.1f s%n", count, layers.length, (System.nanoTime() - start) / 1e9);
+        start = System.nanoTime();
+        solve();
+        System.out.printf("solved in %.1f s; chance of reaching %d from the start %.6f%n", (System.nanoTime() - start) / 1e9, goal, getStartValue());
+        if (output != null) {
+            save(output, count);
+            System.out.println("saved " + output);
+        }
+        if (samples > 0)
+            compare(samples, depth, seed);
+    }
+
+    // the forward pass, single-threaded: every layer is complete once the two before it have been expanded
+    private long enumerate() {
+        final long[] board = rules.newBoard(), moved = rules.newBoard();
+        for (int first = 0; first < rules.getCellsCount(); first++)
+            for (int second = 0; second < rules.getCellsCount(); second++)
+                if (first != second)
+                    for (int firstExponent = 1; firstExponent <= 2; firstExponent++)
+                        for (int secondExponent = 1; secondExponent <= 2; secondExponent++) {
+                            board[0] = 0;
+                            rules.setExponent(board, first / rules.getColumns(), first % rules.getColumns(), firstExponent);
+                            rules.setExponent(board, second / rules.getColumns(), second % rules.getColumns(), secondExponent);
+                            getLayer((1 << firstExponent - 1) + (1 << secondExponent - 1)).add(PositionTable.getKey(rules, board));
+                        }
+        long count = 0;
+        for (int layer = 0; layer < layers.length; layer++) {
+            final LongLongMap positions = layers[layer];
+            if (positions == null)
+                continue;
+            count += positions.size();
+            for (int slot = 0; slot < positions.getCapacity(); slot++) {
+                final long key = positions.getKeyAt(slot);
+                if (key == 0)
+                    continue;
+                board[0] = key;
+                for (Direction direction : DIRECTIONS) {
+                    if (rules.move(board, moved, direction) == Rules.NO_MOVE || reachesGoal(moved[0]))
+                        continue;
+                    for (long cells = rules.getEmptyCells(moved, 0); cells != 0; cells &= cells - 1) {
+                        final long cell = cells & -cells;
+                        if (twoProbability > 0)
+                            getLayer(layer + 1).add(getKey(moved[0] | cell));
+                        if (fourProbability > 0)
+                            getLayer(layer + 2).add(getKey(moved[0] | cell << 1));
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    // the retrograde pass, from the last layer back
+    private void solve() throws InterruptedException, ExecutionException {
+        final List<Future<?>> futures = new ArrayList<>(threads);
+        for (int layer = layers.length - 1; layer >= 0; layer--) {
+            final LongLongMap positions = layers[layer];
+            if (positions == null)
+                continue;
+            final int capacity = positions.getCapacity(), layerIndex = layer;
+            futures.clear();
+            for (int i = 0; i < threads; i++) {
+                final int from = (int) ((long) capacity * i / threads), to = (int) ((long) capacity * (i + 1) / threads);
+                futures.add(executor.submit(new Runnable() {
+                    @Override
+                    public void run() {
+                        final long[] board = rules.newBoard(), moved = rules.newBoard();
+                        for (int slot = from; slot < to; slot++) {
+                            final long key = positions.getKeyAt(slot);
+                            if (key == 0)
+                                continue;
+                            board[0] = key;
+                            Direction best = Direction.Left;
+                            double bestValue = 0;
+                            for (Direction direction : DIRECTIONS) {
+                                final double value = getMoveValue(board, moved, direction, layerIndex);
+                                if (value > bestValue) {
+                                    bestValue = value;
+                                    best = direction;
+                                }
+                            }
+                            positions.setValueAt(slot, PositionTable.encode(best, (float) bestValue));
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures)
+                future.get();
+        }
+    }
+
+    // chance of reaching the goal after the move with best play, or -1 if it is not legal; later layers must be solved
+    private double getMoveValue(long[] board, long[] moved, Direction direction, int layer) {
+        if (rules.move(board, moved, direction) == Rules.NO_MOVE)
+            return -1;
+        if (reachesGoal(moved[0]))
+            return 1;
+        double total = 0;
+        for (long cells = rules.getEmptyCells(moved, 0); cells != 0; cells &= cells - 1) {
+            final long cell = cells & -cells;
+            if (twoProbability > 0)
+                total += twoProbability * getValue(layer + 1, getKey(moved[0] | cell));
+            if (fourProbability > 0)
+                total += fourProbability * getValue(layer + 2, getKey(moved[0] | cell << 1));
+        }
+        return total / rules.countEmpty(moved);
+    }
+
+    private double getValue(int layer, long key) {
+        final long record = layers[layer].get(key, MISSING);
+        if (record == MISSING)
+            throw new IllegalStateException("not enumerated: " + Long.toHexString(key));
+        return PositionTable.decodeValue(record);
+    }
+
+    // averaged over the two tiles a game starts with
+    private double getStartValue() {
+        final long[] board = rules.newBoard();
+        final int cells = rules.getCellsCount(), columns = rules.getColumns();
+        double total = 0;
+        for (int first = 0; first < cells; first++)
+            for (int second = 0; second < cells; second++)
+                if (first != second)
+                    for (int firstExponent = 1; firstExponent <= 2; firstExponent++)
+                        for (int secondExponent = 1; secondExponent <= 2; secondExponent++) {
+                            board[0] = 0;
+                            rules.setExponent(board, first / columns, first % columns, firstExponent);
+                            rules.setExponent(board, second / columns, second % columns, secondExponent);
+                            total += (firstExponent == 1 ? twoProbability : fourProbability) * (secondExponent == 1 ? twoProbability : fourProbability)
+                                    * getValue((1 << firstExponent - 1) + (1 << secondExponent - 1), PositionTable.getKey(rules, board));
+                        }
+        return total / cells / (cells - 1);
+    }
+
+    // positions with a move left, sorted by key
+    private void save(File file, long count) throws IOException {
+        if (count > Integer.MAX_VALUE)
+            throw new IOException("too many positions for one table");
+        final long[] board = rules.newBoard(), keys = new long[(int) count], records = new long[(int) count];
+        int size = 0;
+        for (LongLongMap positions : layers)
+            if (positions != null)
+                for (int slot = 0; slot < positions.getCapacity(); slot++) {
+                    board[0] = positions.getKeyAt(slot);
+                    if (board[0] != 0 && rules.getLegalDirections(board) != 0)
+                        keys[size++] = board[0];
+                }
+        Arrays.parallelSort(keys, 0, size);
+        for (int i = 0; i < size; i++)
+            records[i] = layers[getLayerIndex(keys[i])].get(keys[i], 0);
+        PositionTable.save(file, rules, keys, records, size);
+    }
+
+    // the Solver's moves against the best ones on positions drawn uniformly from all of them
+    private void compare(int samples, int depth, long seed) {
+        final Random random = new Random(seed);
+        final Solver solver = new Solver(Solver.Mode.Expectimax, depth, Long.MAX_VALUE, Long.MAX_VALUE, CACHE_CAPACITY_BITS, seed);
+        final long[] board = rules.newBoard(), moved = rules.newBoard();
+        long total = 0;
+        for (LongLongMap positions : layers)
+            total += positions == null ? 0 : positions.size();
+        int compared = 0, agreed = 0;
+        double loss = 0, maxLoss = 0;
+        while (compared < samples) {
+            long index = (long) (random.nextDouble() * total);
+            int layer = 0;
+            while (layers[layer] == null || index >= layers[layer].size()) {
+                index -= layers[layer] == null ? 0 : layers[layer].size();
+                layer++;
+            }
+            final LongLongMap positions = layers[layer];
+            int slot = random.nextInt(positions.getCapacity());
+            while (positions.getKeyAt(slot) == 0)
+                slot = (slot + 1) % positions.getCapacity();
+            board[0] = positions.getKeyAt(slot);
+            final Direction direction = solver.search(rules, board).getDirection();
+            if (direction == null)
+                continue;
+            final double best = PositionTable.decodeValue(positions.getValueAt(slot)), value = getMoveValue(board, moved, direction, layer);
+            compared++;
+            if (value >= best - TOLERANCE)
+                agreed++;
+            loss += best - value;
+            maxLoss = Math.max(maxLoss, best - value);
+        }
+        System.out.printf("expectimax depth %d on %d positions: best move %.2f%%, chance lost mean %.6f, max %.6f%n",
+                depth, compared, 100.0 * agreed / compared, loss / compared, maxLoss);
+    }
+
+    private LongLongMap getLayer(int layer) {
+        if (layers[layer] == null)
+            layers[layer] = new LongLongMap();
+        return layers[layer];
+    }
+
+    private long getKey(long board) {
+        final long[] boards = {board};
+        return PositionTable.getKey(rules, boards);
+    }
+
+    private boolean reachesGoal(long board) {
+        for (; board != 0; board >>>= 4)
+            if ((board & 0xf) >= goalExponent)
+                return true;
+        return false;
+    }
+
+    // tile sum / 2; the shapes solved here have 4-bit cells and nothing else in the word
+    private static int getLayerIndex(long key) {
+        int sum = 0;
+        for (; key != 0; key >>>= 4)
+            if ((key & 0xf) != 0)
+                sum += 1 << (key & 0xf);
+        return sum / 2;
+    }
+}
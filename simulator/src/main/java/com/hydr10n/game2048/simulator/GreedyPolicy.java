@@ -0,0 +1,38 @@
+/*
+ * Project: Game 2048
+ * Last Modified: 10/18/26 1:20 PM
+ *
+ * Copyright (C) 2026 Programmer-Yang_Xun@outlook.com. All Rights Reserved.
+ * Welcome to visit https://GitHub.com/Hydr10n
+ */
+
+package com.hydr10n.game2048.simulator;
+
+import com.hydr10n.game2048.engine.Direction;
+import com.hydr10n.game2048.engine.Rules;
+
+// highest immediate score, then most empty cells; ties go to the earlier direction
+class GreedyPolicy implements Policy {
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private long[] moved;
+
+    @Override
+    public Direction choose(Rules rules, long[] board) {
+        if (moved == null || moved.length != board.length)
+            moved = rules.newBoard();
+        Direction best = null;
+        long bestValue = -1;
+        for (Direction direction : DIRECTIONS) {
+            final long gained = rules.move(board, moved, direction);
+            if (gained == Rules.NO_MOVE)
+                continue;
+            final long value = gained << 8 | rules.countEmpty(moved);
+            if (value > bestValue) {
+                bestValue = value;
+                best = direction;
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Project: Game 2048
+ * Last Modified: 10/18/26 5:05 PM
+ *
+ * Copyright (C) 2026 Programmer-Yang_Xun@outlook.com. All Rights Reserved.
+ * Welcome to visit https://GitHub.com/Hydr10n
+ */
+
+package com.hydr10n.game2048.simulator;
+
+/*
+ * Open addressing with linear probing over two primitive arrays, 16 bytes a slot and no object per entry. Key 0 marks
+ * an empty slot, so it cannot be stored, which suits packed boards: an empty board is never a position. Not thread-safe,
+ * except that threads may write the values of distinct slots through setValueAt() while nothing is added.
+ */
+final class LongLongMap {
+    private static final long MULTIPLIER = 0x9e3779b97f4a7c15L;
+    private static final int MIN_CAPACITY_BITS = 4, MAX_CAPACITY_BITS = 30;
+
+    private long[] keys, values;
+    private int size, shift;
+
+    LongLongMap() {
+        allocate(MIN_CAPACITY_BITS);
+    }
+
+    int size() {
+        return size;
+    }
+
+    // slots run from 0 to getCapacity() - 1, empty ones having key 0
+    int getCapacity() {
+        return keys.length;
+    }
+
+    long getKeyAt(int slot) {
+        return keys[slot];
+    }
+
+    long getValueAt(int slot) {
+        return values[slot];
+    }
+
+    void setValueAt(int slot, long value) {
+        values[slot] = value;
+    }
+
+    long get(long key, long missing) {
+        final int mask = keys.length - 1;
+        for (int slot = getSlot(key); ; slot = slot + 1 & mask) {
+            final long stored = keys[slot];
+            if (stored == key)
+                return values[slot];
+            if (stored == 0)
+                return missing;
+        }
+    }
+
+    // with value 0 unless the key is already there; false then
+    boolean add(long key) {
+        if (key == 0)
+            throw new IllegalArgumentException();
+        final int mask = keys.length - 1;
+        int slot = getSlot(key);
+        for (long stored; (stored = keys[slot]) != 0; slot = slot + 1 & mask)
+            if (stored == key)
+                return false;
+        keys[slot] = key;
+        if (++size > keys.length / 4 * 3)
+            grow();
+        return true;
+    }
+
+    private int getSlot(long key) {
+        return (int) (key * MULTIPLIER >>> shift);
+    }
+
+    private void allocate(int capacityBits) {
+        keys = new long[1 << capacityBits];
+        values = new long[1 << capacityBits];
+        shift = Long.SIZE - capacityBits;
+    }
+
+    private void grow() {
+        final int capacityBits = Long.SIZE - shift + 1;
+        if (capacityBits > MAX_CAPACITY_BITS)
+            throw new IllegalStateException("more than " + (1 << MAX_CAPACITY_BITS) / 4 * 3 + " keys");
+        final long[] oldKeys = keys, oldValues = values;
+        allocate(capacityBits);
+        final int mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++)
+            if (oldKeys[i] != 0) {
+                int slot = getSlot(oldKeys[i]);
+                while (keys[slot] != 0)
+                    slot = slot + 1 & mask;
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+    }
+}
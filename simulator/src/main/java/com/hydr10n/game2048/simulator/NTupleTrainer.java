@@ -0,0 +1,182 @@
+/*
+ * Project: Game 2048
+ * Last Modified: 10/18/26 2:40 PM
+ *
+ * Copyright (C) 2026 Programmer-Yang_Xun@outlook.com. All Rights Reserved.
+ * Welcome to visit https://GitHub.com/Hydr10n
+ */
+
+package com.hydr10n.game2048.simulator;
+
+import com.hydr10n.game2048.engine.Bitboard;
+import com.hydr10n.game2048.engine.Direction;
+import com.hydr10n.game2048.engine.Game;
+import com.hydr10n.game2048.engine.NTupleNetwork;
+import com.hydr10n.game2048.engine.SpawnRule;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Trains an NTupleNetwork by TD(0) self-play on the 4 x 4 board, e.g.
+ * java -cp simulator.jar com.hydr10n.game2048.simulator.NTupleTrainer --games 1000000 --tuples standard --out ntuple.weights
+ * Every thread plays its own games greedily on the shared network, moving each afterstate's value toward the next move's
+ * score plus the next afterstate's value; the last one of a game toward 0. Running averages are printed per
+ * --report-games games, and the network is saved after each report, so training can be stopped and resumed with --in.
+ */
+public final class NTupleTrainer {
+    private static final long SEED_INCREMENT = 0x9e3779b97f4a7c15L;
+
+    private final NTupleNetwork network;
+    private final long games, seed, reportGames;
+    private final float learningRate;
+    private final SpawnRule spawnRule;
+    private final File output;
+    private final AtomicLong nextGame = new AtomicLong();
+    private final Statistics report = new Statistics();
+    private long reported, reportStart;
+
+    private NTupleTrainer(NTupleNetwork network, long games, long seed, float alpha, SpawnRule spawnRule, long reportGames, File output) {
+        this.network = network;
+        this.games = games;
+        this.seed = seed;
+        this.spawnRule = spawnRule;
+        this.reportGames = reportGames;
+        this.output = output;
+        learningRate = alpha / network.getFeaturesCount();
+    }
+
+    public static void main(String[] args) throws InterruptedException, IOException {
+        long games = 100000, seed = System.nanoTime(), reportGames = 10000;
+        int threads = Runtime.getRuntime().availableProcessors();
+        float alpha = 0.1f, fourProbability = SpawnRule.STANDARD.getFourProbability();
+        String tuples = "compact";
+        File input = null, output = new File("ntuple.weights");
+        try {
+            for (int i = 0; i < args.length; i += 2) {
+                final String value = args[i + 1];
+                switch (args[i]) {
+                    case "--games":
+                        games = Long.parseLong(value);
+                        break;
+                    case "--tuples":
+                        if (!value.equals("compact") && !value.equals("standard"))
+                            throw new IllegalArgumentException(value);
+                        tuples = value;
+                        break;
+                    case "--alpha":
+                        alpha = Float.parseFloat(value);
+                        break;
+                    case "--seed":
+                        seed = Long.parseLong(value);
+                        break;
+                    case "--threads":
+                        threads = Integer.parseInt(value);
+                        break;
+                    case "--report-games":
+                        reportGames = Long.parseLong(value);
+                        break;
+                    case "--four-probability":
+                        fourProbability = Float.parseFloat(value);
+                        break;
+                    case "--in":
+                        input = new File(value);
+                        break;
+                    case "--out":
+                        output = new File(value);
+                        break;
+                    default:
+                        throw new IllegalArgumentException(args[i]);
+                }
+            }
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException exception) {
+            System.err.println("usage: NTupleTrainer [--games N] [--tuples compact|standard] [--alpha A] [--seed S] [--threads T] " +
+                    "[--report-games G] [--four-probability P] [--in FILE] [--out FILE]");
+            System.exit(1);
+        }
+        final NTupleNetwork network = input != null ? NTupleNetwork.load(input, true) :
+                new NTupleNetwork(tuples.equals("standard") ? NTupleNetwork.STANDARD_TUPLES : NTupleNetwork.COMPACT_TUPLES);
+        new NTupleTrainer(network, games, seed, alpha, new SpawnRule(fourProbability), reportGames, output).run(threads);
+    }
+
+    private void run(int threads) throws InterruptedException, IOException {
+        System.out.printf("tuples %d  features %d  games %d  seed %d  threads %d  4s %.2f%n", network.getTuples().length,
+                network.getFeaturesCount(), games, seed, threads, spawnRule.getFourProbability());
+        reportStart = System.nanoTime();
+        final Thread[] workers = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    work();
+                }
+            });
+            workers[i].start();
+        }
+        for (Thread worker : workers)
+            worker.join();
+        network.save(output);
+        System.out.println("saved " + output);
+    }
+
+    private void work() {
+        long index;
+        while ((index = nextGame.getAndIncrement()) < games) {
+            final Random random = new SplitMixRandom(SplitMixRandom.mix(seed + index * SEED_INCREMENT));
+            long board = spawn(spawn(0, random), random), afterstate = 0, score = 0;
+            int moves = 0;
+            boolean first = true;
+            while (true) {
+                final Direction direction = network.chooseMove(board);
+                if (direction == null)
+                    break;
+                final long moved = Bitboard.move(board, direction);
+                final int reward = Bitboard.getScore(moved) - Bitboard.getScore(board);
+                if (!first)
+                    network.update(afterstate, learningRate * (reward + network.evaluate(moved) - network.evaluate(afterstate)));
+                first = false;
+                score += reward;
+                afterstate = moved;
+                board = spawn(moved, random);
+                moves++;
+            }
+            if (!first)
+                network.update(afterstate, -learningRate * network.evaluate(afterstate));
+            finish(score, moves, getMaxExponent(board));
+        }
+    }
+
+    private void finish(long score, int moves, int maxExponent) {
+        synchronized (report) {
+            report.add(score, moves, maxExponent, maxExponent >= Game.WINNING_EXPONENT);
+            if (report.getGames() < reportGames)
+                return;
+            reported += report.getGames();
+            System.out.printf("%d games  ", reported);
+            final long now = System.nanoTime();
+            report.printSummary(System.out, (now - reportStart) / 1e9);
+            report.clear();
+            reportStart = now;
+            try {
+                network.save(output);
+            } catch (IOException exception) {
+                System.err.println("not saved: " + exception.getMessage());
+            }
+        }
+    }
+
+    private long spawn(long board, Random random) {
+        final long cells = Bitboard.getEmptyCells(board);
+        final int shift = Bitboard.selectCell(cells, random.nextInt(Long.bitCount(cells)));
+        return board | (long) spawnRule.nextExponent(random) << shift;
+    }
+
+    private static int getMaxExponent(long board) {
+        int max = 0;
+        for (; board != 0; board >>>= 4)
+            max = Math.max(max, (int) board & 0xf);
+        return max;
+    }
+}
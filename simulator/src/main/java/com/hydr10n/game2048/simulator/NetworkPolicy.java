@@ -0,0 +1,28 @@
+/*
+ * Project: Game 2048
+ * Last Modified: 10/18/26 10:30 PM
+ *
+ * Copyright (C) 2026 Programmer-Yang_Xun@outlook.com. All Rights Reserved.
+ * Welcome to visit https://GitHub.com/Hydr10n
+ */
+
+package com.hydr10n.game2048.simulator;
+
+import com.hydr10n.game2048.engine.Direction;
+import com.hydr10n.game2048.engine.NTupleNetwork;
+import com.hydr10n.game2048.engine.Rules;
+
+// the move an n-tuple network values most, without search; 4 x 4 only, and greedy once a tile passes 16384
+class NetworkPolicy implements Policy {
+    private final NTupleNetwork network;
+    private final GreedyPolicy fallback = new GreedyPolicy();
+
+    NetworkPolicy(NTupleNetwork network) {
+        this.network = network;
+    }
+
+    @Override
+    public Direction choose(Rules rules, long[] board) {
+        return rules.isBitboard(board) ? network.chooseMove(board[0]) : fallback.choose(rules, board);
+    }
+}
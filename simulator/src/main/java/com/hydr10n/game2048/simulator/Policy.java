@@ -0,0 +1,17 @@
+/*
+ * Project: Game 2048
+ * Last Modified: 10/18/26 7:30 PM
+ *
+ * Copyright (C) 2026 Programmer-Yang_Xun@outlook.com. All Rights Reserved.
+ * Welcome to visit https://GitHub.com/Hydr10n
+ */
+
+package com.hydr10n.game2048.simulator;
+
+import com.hydr10n.game2048.engine.Direction;
+import com.hydr10n.game2048.engine.Rules;
+
+// used by one game at a time, mostly made for it; returns null when no move is possible
+interface Policy {
+    Direction choose(Rules rules, long[] board);
+}
@@ -0,0 +1,149 @@
+/*
+ * Project: Game 2048
+ * Last Modified: 10/18/26 3:50 PM
+ *
+ * Copyright (C) 2026 Programmer-Yang_Xun@outlook.com. All Rights Reserved.
+ * Welcome to visit https://GitHub.com/Hydr10n
+ */
+
+package com.hydr10n.game2048.simulator;
+
+import com.hydr10n.game2048.engine.Direction;
+import com.hydr10n.game2048.engine.Game;
+import com.hydr10n.game2048.engine.NTupleNetwork;
+import com.hydr10n.game2048.engine.PositionTable;
+import com.hydr10n.game2048.engine.Rules;
+import com.hydr10n.game2048.engine.Solver;
+import com.hydr10n.game2048.engine.SpawnRule;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Builds a PositionTable from the positions games actually reach, e.g. 4 x 4 openings:
+ * java -cp simulator.jar com.hydr10n.game2048.simulator.PositionTableBuilder --size 4 --games 10000 --plies 20 --depth 5
+ * Every game is played by fixed-depth expectimax, with the NTupleNetwork of --weights as its evaluator if given, and the
+ * first --plies positions of each, or all of them with --plies 0 as for small-board endgames, are recorded with the move
+ * and value of a search of --depth.
+ */
+public final class PositionTableBuilder {
+    private static final int CACHE_CAPACITY_BITS = 20;
+    private static final long SEED_INCREMENT = 0x9e3779b97f4a7c15L;
+
+    private final Rules rules;
+    private final long games, seed;
+    private final int plies, depth;
+    private final SpawnRule spawnRule;
+    private final NTupleNetwork network;
+    private final PositionTable.Writer writer;
+    private final AtomicLong nextGame = new AtomicLong();
+
+    private PositionTableBuilder(Rules rules, long games, int plies, int depth, long seed, SpawnRule spawnRule, NTupleNetwork network) {
+        this.rules = rules;
+        this.games = games;
+        this.plies = plies;
+        this.depth = depth;
+        this.seed = seed;
+        this.spawnRule = spawnRule;
+        this.network = network;
+        writer = new PositionTable.Writer(rules);
+    }
+
+    public static void main(String[] args) throws InterruptedException, IOException {
+        long games = 1000, seed = System.nanoTime();
+        Rules rules = Rules.of(4);
+        int threads = Runtime.getRuntime().availableProcessors(), plies = 20, depth = 4;
+        float fourProbability = SpawnRule.STANDARD.getFourProbability();
+        File weights = null, output = new File("positions.table");
+        try {
+            for (int i = 0; i < args.length; i += 2) {
+                final String value = args[i + 1];
+                switch (args[i]) {
+                    case "--size":
+                        rules = Rules.parse(value);
+                        break;
+                    case "--games":
+                        games = Long.parseLong(value);
+                        break;
+                    case "--plies":
+                        plies = Integer.parseInt(value);
+                        break;
+                    case "--depth":
+                        depth = Integer.parseInt(value);
+                        break;
+                    case "--seed":
+                        seed = Long.parseLong(value);
+                        break;
+                    case "--threads":
+                        threads = Integer.parseInt(value);
+                        break;
+                    case "--four-probability":
+                        fourProbability = Float.parseFloat(value);
+                        break;
+                    case "--weights":
+                        weights = new File(value);
+                        break;
+                    case "--out":
+                        output = new File(value);
+                        break;
+                    default:
+                        throw new IllegalArgumentException(args[i]);
+                }
+            }
+            if (!PositionTable.supports(rules) || plies < 0 || depth < 1)
+                throw new IllegalArgumentException();
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException exception) {
+            System.err.println("usage: PositionTableBuilder [--size N|RxC] [--games N] [--plies P] [--depth D] [--seed S] [--threads T] " +
+                    "[--four-probability P] [--weights FILE] [--out FILE]; the board must fit 64 bits");
+            System.exit(1);
+        }
+        final NTupleNetwork network = weights == null ? null : NTupleNetwork.load(weights, false);
+        new PositionTableBuilder(rules, games, plies, depth, seed, new SpawnRule(fourProbability), network).run(threads, output);
+    }
+
+    private void run(int threads, File output) throws InterruptedException, IOException {
+        System.out.printf("size %s  games %d  plies %d  depth %d  seed %d  threads %d%n", rules, games, plies, depth, seed, threads);
+        final long start = System.nanoTime();
+        final Thread[] workers = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    work();
+                }
+            });
+            workers[i].start();
+        }
+        for (Thread worker : workers)
+            worker.join();
+        writer.save(output);
+        System.out.printf("%d positions in %.1f s, saved %s%n", writer.size(), (System.nanoTime() - start) / 1e9, output);
+    }
+
+    private void work() {
+        final long[] board = rules.newBoard();
+        final Solver solver = new Solver(Solver.Mode.Expectimax, depth, Long.MAX_VALUE, Long.MAX_VALUE, CACHE_CAPACITY_BITS, seed);
+        solver.setSpawnRule(spawnRule);
+        if (network != null)
+            solver.setEvaluator(network);
+        long index;
+        while ((index = nextGame.getAndIncrement()) < games) {
+            final Random random = new SplitMixRandom(SplitMixRandom.mix(seed + index * SEED_INCREMENT));
+            final Game game = new Game(rules, random, spawnRule);
+            game.newGame(null);
+            game.keepGoing();
+            for (int ply = 0; (plies == 0 || ply < plies) && !game.isOver(); ply++) {
+                game.getBoard(board);
+                final Solver.Result result = solver.search(rules, board);
+                final Direction direction = result.getDirection();
+                if (direction == null)
+                    break;
+                if (!writer.contains(board))
+                    writer.add(board, direction, result.getValue());
+                game.move(direction, null);
+            }
+        }
+    }
+}
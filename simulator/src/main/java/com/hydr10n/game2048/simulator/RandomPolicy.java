@@ -0,0 +1,35 @@
+/*
+ * Project: Game 2048
+ * Last Modified: 10/17/26 7:14 PM
+ *
+ * Copyright (C) 2026 Programmer-Yang_Xun@outlook.com. All Rights Reserved.
+ * Welcome to visit https://GitHub.com/Hydr10n
+ */
+
+package com.hydr10n.game2048.simulator;
+
+import com.hydr10n.game2048.engine.Direction;
+import com.hydr10n.game2048.engine.Rules;
+
+import java.util.Random;
+
+class RandomPolicy implements Policy {
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private final Random random;
+
+    RandomPolicy(Random random) {
+        this.random = random;
+    }
+
+    @Override
+    public Direction choose(Rules rules, long[] board) {
+        final int legalDirections = rules.getLegalDirections(board), first = random.nextInt(DIRECTIONS.length);
+        for (int i = 0; i < DIRECTIONS.length; i++) {
+            final Direction direction = DIRECTIONS[(first + i) % DIRECTIONS.length];
+            if ((legalDirections & 1 << direction.ordinal()) != 0)
+                return direction;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,242 @@
+/*
+ * Project: Game 2048
+ * Last Modified: 10/18/26 10:30 PM
+ *
+ * Copyright (C) 2026 Programmer-Yang_Xun@outlook.com. All Rights Reserved.
+ * Welcome to visit https://GitHub.com/Hydr10n
+ */
+
+package com.hydr10n.game2048.simulator;
+
+import com.hydr10n.game2048.engine.Direction;
+import com.hydr10n.game2048.engine.Game;
+import com.hydr10n.game2048.engine.NTupleNetwork;
+import com.hydr10n.game2048.engine.Rules;
+import com.hydr10n.game2048.engine.SpawnRule;
+import com.hydr10n.game2048.engine.TrainingData;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Plays games headlessly with the app's rules and prints running aggregates, e.g.
+ * java -jar simulator.jar --games 10000000 --size 4 --policy random --seed 1 --threads 8 --four-probability 0.1
+ * Game i is seeded from (seed, i) alone, so totals do not depend on the thread count. With --keep-going true games play on
+ * past the winning tile until no move is left; a game counts as won once it reaches that tile either way.
+ * The network policy plays 4 x 4 games with the NTupleNetwork of --weights, as NTupleTrainer saves it; the solver policy
+ * searches with it too when --weights is given.
+ * With --record DIR every move is also written to DIR as TrainingData, game-{seed}-NNNNNN.tdc files of up to RECORD_FILE_BYTES;
+ * the simulator waits for the disk rather than buffer more than a few chunks per thread.
+ */
+public final class Simulator {
+    private static final int BATCH_SIZE = 1024;
+    private static final List<String> POLICIES = Arrays.asList("random", "greedy", "solver", "network");
+    private static final long SEED_INCREMENT = 0x9e3779b97f4a7c15L, RECORD_FILE_BYTES = 256 << 20;
+    private static final int RECORD_CHUNK_BYTES = 1 << 20, RECORD_BUFFERS_PER_THREAD = 2;
+
+    private final long games, seed;
+    private final Rules rules;
+    private final int solverDepth;
+    private final boolean keepGoing;
+    private final String policy;
+    private final SpawnRule spawnRule;
+    private final NTupleNetwork network;
+    private final TrainingData.Writer recorder;
+    private final AtomicLong nextBatch = new AtomicLong();
+    private final Statistics total = new Statistics();
+
+    private Simulator(long games, Rules rules, String policy, int solverDepth, long seed, SpawnRule spawnRule, boolean keepGoing,
+                      NTupleNetwork network, TrainingData.Writer recorder) {
+        this.games = games;
+        this.rules = rules;
+        this.policy = policy;
+        this.spawnRule = spawnRule;
+        this.solverDepth = solverDepth;
+        this.seed = seed;
+        this.keepGoing = keepGoing;
+        this.network = network;
+        this.recorder = recorder;
+    }
+
+    public static void main(String[] args) throws InterruptedException, IOException {
+        long games = 100000, seed = System.nanoTime();
+        Rules rules = Rules.of(4);
+        int threads = Runtime.getRuntime().availableProcessors(), solverDepth = 2;
+        double reportSeconds = 1;
+        float fourProbability = SpawnRule.STANDARD.getFourProbability();
+        String policy = "random";
+        boolean keepGoing = false;
+        File weights = null, recordDirectory = null;
+        try {
+            for (int i = 0; i < args.length; i += 2) {
+                final String value = args[i + 1];
+                switch (args[i]) {
+                    case "--games":
+                        games = Long.parseLong(value);
+                        break;
+                    case "--size":
+                        rules = Rules.parse(value);
+                        break;
+                    case "--policy":
+                        if (!POLICIES.contains(value))
+                            throw new IllegalArgumentException(value);
+                        policy = value;
+                        break;
+                    case "--depth":
+                        solverDepth = Integer.parseInt(value);
+                        break;
+                    case "--seed":
+                        seed = Long.parseLong(value);
+                        break;
+                    case "--threads":
+                        threads = Integer.parseInt(value);
+                        break;
+                    case "--report-seconds":
+                        reportSeconds = Double.parseDouble(value);
+                        break;
+                    case "--four-probability":
+                        fourProbability = Float.parseFloat(value);
+                        break;
+                    case "--keep-going":
+                        if (!value.equals("true") && !value.equals("false"))
+                            throw new IllegalArgumentException(value);
+                        keepGoing = Boolean.parseBoolean(value);
+                        break;
+                    case "--weights":
+                        weights = new File(value);
+                        break;
+                    case "--record":
+                        recordDirectory = new File(value);
+                        break;
+                    default:
+                        throw new IllegalArgumentException(args[i]);
+                }
+            }
+            if (policy.equals("network") && (weights == null || rules != Rules.of(4)) || solverDepth < 1)
+                throw new IllegalArgumentException(policy);
+            if (recordDirectory != null && !recordDirectory.isDirectory() && !recordDirectory.mkdirs())
+                throw new IOException("cannot create " + recordDirectory);
+            final NTupleNetwork network = weights == null ? null : NTupleNetwork.load(weights, false);
+            final TrainingData.Writer recorder = recordDirectory == null ? null : new TrainingData.Writer(recordDirectory, "game-" + seed,
+                    RECORD_CHUNK_BYTES, threads * RECORD_BUFFERS_PER_THREAD, RECORD_FILE_BYTES, 0);
+            try {
+                new Simulator(games, rules, policy, solverDepth, seed, new SpawnRule(fourProbability), keepGoing, network, recorder)
+                        .run(threads, reportSeconds);
+            } finally {
+                if (recorder != null)
+                    recorder.close();
+            }
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException exception) {
+            System.err.println("usage: Simulator [--games N] [--size N|RxC] [--policy random|greedy|solver|network] [--depth D] " +
+                    "[--seed S] [--threads T] [--report-seconds R] [--four-probability P] [--keep-going true|false] [--weights FILE] [--record DIR]");
+            System.exit(1);
+        }
+    }
+
+    private void run(int threads, double reportSeconds) throws InterruptedException {
+        System.out.printf("size %s  policy %s  seed %d  threads %d  4s %.2f%s%n", rules, policy, seed, threads, spawnRule.getFourProbability(),
+                keepGoing ? "  keep going" : "");
+        final long start = System.nanoTime();
+        final Thread[] workers = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    work();
+                }
+            });
+            workers[i].start();
+        }
+        for (Thread worker : workers)
+            while (worker.isAlive()) {
+                worker.join((long) (reportSeconds * 1000));
+                if (worker.isAlive())
+                    synchronized (total) {
+                        total.printSummary(System.out, (System.nanoTime() - start) / 1e9);
+                    }
+            }
+        total.printSummary(System.out, (System.nanoTime() - start) / 1e9);
+        total.printDetails(System.out);
+        if (recorder != null)
+            System.out.printf("recorded %d moves, waited for the disk %d times%n", recorder.getRowsCount().get(), recorder.getStallsCount().get());
+    }
+
+    private void work() {
+        final long[] board = rules.newBoard();
+        final Statistics statistics = new Statistics();
+        final TrainingData.Episode episode = recorder == null ? null : new TrainingData.Episode(rules);
+        final SolverPolicy solverPolicy = createSolverPolicy();
+        long batch;
+        while ((batch = nextBatch.getAndIncrement()) * BATCH_SIZE < games) {
+            final long end = Math.min(games, (batch + 1) * BATCH_SIZE);
+            for (long index = batch * BATCH_SIZE; index < end; index++)
+                play(index, board, statistics, episode, solverPolicy);
+            synchronized (total) {
+                total.add(statistics);
+            }
+            statistics.clear();
+        }
+    }
+
+    private void play(long index, long[] board, Statistics statistics, TrainingData.Episode episode, SolverPolicy solverPolicy) {
+        final Random random = new SplitMixRandom(SplitMixRandom.mix(seed + index * SEED_INCREMENT));
+        final Game game = new Game(rules, random, spawnRule);
+        final Policy policy = createPolicy(random, solverPolicy);
+        int moves = 0;
+        game.newGame(null);
+        if (keepGoing)
+            game.keepGoing();
+        while (!game.isOver() && !game.isWon()) {
+            game.getBoard(board);
+            final Direction direction = policy.choose(rules, board);
+            if (direction == null)
+                break;
+            final long score = game.getScore();
+            game.move(direction, null);
+            if (episode != null)
+                episode.add(board, direction, game.getScore() - score);
+            moves++;
+        }
+        if (episode != null)
+            record(episode, game.getScore());
+        game.getBoard(board);
+        final int maxExponent = rules.getMaxExponent(board);
+        statistics.add(game.getScore(), moves, maxExponent, maxExponent >= Game.WINNING_EXPONENT);
+    }
+
+    private void record(TrainingData.Episode episode, long outcome) {
+        try {
+            recorder.write(episode, outcome);
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+        episode.clear();
+    }
+
+    // solverPolicy: the worker thread's, from createSolverPolicy()
+    private Policy createPolicy(Random random, SolverPolicy solverPolicy) {
+        switch (policy) {
+            case "random":
+                return new RandomPolicy(random);
+            case "greedy":
+                return new GreedyPolicy();
+            case "solver":
+                solverPolicy.newGame();
+                return solverPolicy;
+            case "network":
+                return new NetworkPolicy(network);
+            default:
+                throw new IllegalArgumentException(policy);
+        }
+    }
+
+    // one per worker thread for the solver policy, whose cache is too big to allocate per game; null for the others
+    private SolverPolicy createSolverPolicy() {
+        return policy.equals("solver") ? new SolverPolicy(solverDepth, spawnRule, network) : null;
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * Project: Game 2048
+ * Last Modified: 10/18/26 7:30 PM
+ *
+ * Copyright (C) 2026 Programmer-Yang_Xun@outlook.com. All Rights Reserved.
+ * Welcome to visit https://GitHub.com/Hydr10n
+ */
+
+package com.hydr10n.game2048.simulator;
+
+import com.hydr10n.game2048.engine.Direction;
+import com.hydr10n.game2048.engine.Evaluator;
+import com.hydr10n.game2048.engine.Rules;
+import com.hydr10n.game2048.engine.Solver;
+import com.hydr10n.game2048.engine.SpawnRule;
+
+/*
+ * Fixed-depth expectimax with a cache of its own. One instance serves every game a worker thread plays, so the cache is
+ * allocated once; newGame() empties it, so a game still plays the same whichever thread runs it and after whichever games.
+ */
+class SolverPolicy implements Policy {
+    private static final int CACHE_CAPACITY_BITS = 16;
+
+    private final Solver solver;
+
+    // evaluator: null for the solver's own
+    SolverPolicy(int depth, SpawnRule spawnRule, Evaluator evaluator) {
+        solver = new Solver(Solver.Mode.Expectimax, depth, Long.MAX_VALUE, Long.MAX_VALUE, CACHE_CAPACITY_BITS, 0);
+        solver.setSpawnRule(spawnRule);
+        if (evaluator != null)
+            solver.setEvaluator(evaluator);
+    }
+
+    void newGame() {
+        solver.clearCache();
+    }
+
+    @Override
+    public Direction choose(Rules rules, long[] board) {
+        return solver.search(rules, board).getDirection();
+    }
+}
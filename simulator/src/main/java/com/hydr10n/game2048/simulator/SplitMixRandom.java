@@ -0,0 +1,41 @@
+/*
+ * Project: Game 2048
+ * Last Modified: 10/18/26 10:00 PM
+ *
+ * Copyright (C) 2026 Programmer-Yang_Xun@outlook.com. All Rights Reserved.
+ * Welcome to visit https://GitHub.com/Hydr10n
+ */
+
+package com.hydr10n.game2048.simulator;
+
+import java.util.Random;
+
+// unsynchronized SplitMix64: java.util.Random pays for an atomic compare-and-set on every draw
+final class SplitMixRandom extends Random {
+    private static final long serialVersionUID = 1L;
+
+    private long state;    // no initializer: Random's constructor sets it through setSeed() before this class's own run
+
+    SplitMixRandom(long seed) {
+        super(seed);
+    }
+
+    static long mix(long z) {
+        z = (z ^ z >>> 30) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ z >>> 27) * 0x94d049bb133111ebL;
+        return z ^ z >>> 31;
+    }
+
+    // as Game.newGame(seed, listener) reseeds it, which must replay like a new SplitMixRandom(seed)
+    @Override
+    public void setSeed(long seed) {
+        super.setSeed(seed);
+        state = seed;
+    }
+
+    @Override
+    protected int next(int bits) {
+        state += 0x9e3779b97f4a7c15L;
+        return (int) (mix(state) >>> Long.SIZE - bits);
+    }
+}
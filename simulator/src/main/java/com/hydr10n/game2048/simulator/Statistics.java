@@ -0,0 +1,80 @@
+/*
+ * Project: Game 2048
+ * Last Modified: 10/18/26 1:20 PM
+ *
+ * Copyright (C) 2026 Programmer-Yang_Xun@outlook.com. All Rights Reserved.
+ * Welcome to visit https://GitHub.com/Hydr10n
+ */
+
+package com.hydr10n.game2048.simulator;
+
+import java.io.PrintStream;
+
+final class Statistics {
+    private final long[] scoreHistogram = new long[Long.SIZE], maxTileHistogram = new long[Integer.SIZE];
+
+    private long games, wins, totalScore, totalMoves, minScore = Long.MAX_VALUE, maxScore, minMoves = Long.MAX_VALUE, maxMoves;
+
+    long getGames() {
+        return games;
+    }
+
+    void add(long score, int moves, int maxExponent, boolean won) {
+        games++;
+        if (won)
+            wins++;
+        totalScore += score;
+        totalMoves += moves;
+        minScore = Math.min(minScore, score);
+        maxScore = Math.max(maxScore, score);
+        minMoves = Math.min(minMoves, moves);
+        maxMoves = Math.max(maxMoves, moves);
+        scoreHistogram[Long.SIZE - Long.numberOfLeadingZeros(score)]++;
+        maxTileHistogram[maxExponent]++;
+    }
+
+    void add(Statistics statistics) {
+        games += statistics.games;
+        wins += statistics.wins;
+        totalScore += statistics.totalScore;
+        totalMoves += statistics.totalMoves;
+        minScore = Math.min(minScore, statistics.minScore);
+        maxScore = Math.max(maxScore, statistics.maxScore);
+        minMoves = Math.min(minMoves, statistics.minMoves);
+        maxMoves = Math.max(maxMoves, statistics.maxMoves);
+        for (int i = 0; i < scoreHistogram.length; i++)
+            scoreHistogram[i] += statistics.scoreHistogram[i];
+        for (int i = 0; i < maxTileHistogram.length; i++)
+            maxTileHistogram[i] += statistics.maxTileHistogram[i];
+    }
+
+    void clear() {
+        games = wins = totalScore = totalMoves = maxScore = maxMoves = 0;
+        minScore = minMoves = Long.MAX_VALUE;
+        for (int i = 0; i < scoreHistogram.length; i++)
+            scoreHistogram[i] = 0;
+        for (int i = 0; i < maxTileHistogram.length; i++)
+            maxTileHistogram[i] = 0;
+    }
+
+    void printSummary(PrintStream out, double seconds) {
+        out.printf("games %d  games/s %.0f  moves/s %.0f  score mean %.1f  moves mean %.1f  win rate %.4f%n",
+                games, games / seconds, totalMoves / seconds, (double) totalScore / Math.max(games, 1),
+                (double) totalMoves / Math.max(games, 1), (double) wins / Math.max(games, 1));
+    }
+
+    void printDetails(PrintStream out) {
+        if (games == 0)
+            return;
+        out.printf("score min %d  max %d%n", minScore, maxScore);
+        out.printf("moves min %d  max %d%n", minMoves, maxMoves);
+        out.println("score distribution:");
+        for (int i = 0; i < scoreHistogram.length; i++)
+            if (scoreHistogram[i] != 0)
+                out.printf("  [%d, %d)  %d  %.4f%n", i == 0 ? 0 : 1L << i - 1, 1L << i, scoreHistogram[i], (double) scoreHistogram[i] / games);
+        out.println("max tile histogram:");
+        for (int i = 0; i < maxTileHistogram.length; i++)
+            if (maxTileHistogram[i] != 0)
+                out.printf("  %d  %d  %.4f%n", 1L << i, maxTileHistogram[i], (double) maxTileHistogram[i] / games);
+    }
+}
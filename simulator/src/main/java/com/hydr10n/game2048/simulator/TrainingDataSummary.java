@@ -0,0 +1,86 @@
+/*
+ * Project: Game 2048
+ * Last Modified: 10/18/26 6:10 PM
+ *
+ * Copyright (C) 2026 Programmer-Yang_Xun@outlook.com. All Rights Reserved.
+ * Welcome to visit https://GitHub.com/Hydr10n
+ */
+
+package com.hydr10n.game2048.simulator;
+
+import com.hydr10n.game2048.engine.Direction;
+import com.hydr10n.game2048.engine.TrainingData;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/*
+ * Reads TrainingData files, or every one in a directory, and prints what they hold, e.g.
+ * java -cp simulator.jar com.hydr10n.game2048.simulator.TrainingDataSummary records
+ * Columns are read in place from the mapped files, as a training loop would; the rate printed is of that scan alone.
+ */
+public final class TrainingDataSummary {
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private TrainingDataSummary() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("usage: TrainingDataSummary FILE|DIR...");
+            System.exit(1);
+        }
+        final List<File> files = new ArrayList<>();
+        for (String arg : args) {
+            final File file = new File(arg);
+            final File[] listed = file.listFiles();
+            if (listed == null)
+                files.add(file);
+            else {
+                Arrays.sort(listed);
+                for (File child : listed)
+                    if (child.getName().endsWith('.' + TrainingData.EXTENSION))
+                        files.add(child);
+            }
+        }
+        final long[] moves = new long[DIRECTIONS.length];
+        long rows = 0, chunks = 0, reward = 0, outcome = 0, unfinished = 0, boardHash = 0, bytes = 0;
+        final long start = System.nanoTime();
+        for (File file : files) {
+            bytes += file.length();
+            for (TrainingData.Chunk chunk : TrainingData.read(file)) {
+                chunks++;
+                rows += chunk.size();
+                final ByteBuffer moveColumn = chunk.getMoves();
+                final IntBuffer rewardColumn = chunk.getRewards();
+                final LongBuffer outcomeColumn = chunk.getOutcomes(), boardColumn = chunk.getBoards();
+                for (int row = 0; row < chunk.size(); row++) {
+                    moves[moveColumn.get(row) & 3]++;
+                    reward += rewardColumn.get(row);
+                    final long rowOutcome = outcomeColumn.get(row);
+                    if (rowOutcome == TrainingData.NO_OUTCOME)
+                        unfinished++;
+                    else
+                        outcome += rowOutcome;
+                }
+                while (boardColumn.hasRemaining())
+                    boardHash = boardHash * 31 + boardColumn.get();
+            }
+        }
+        final double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%d files  %d chunks  %d moves  %.1f MB  read in %.2f s, %.1f M moves/s%n", files.size(), chunks, rows,
+                bytes / 1e6, seconds, rows / seconds / 1e6);
+        if (rows == 0)
+            return;
+        System.out.printf("mean reward %.2f  mean final score %.1f  unfinished %d  boards hash %016x%n", (double) reward / rows,
+                rows == unfinished ? 0 : (double) outcome / (rows - unfinished), unfinished, boardHash);
+        for (Direction direction : DIRECTIONS)
+            System.out.printf("%-6s %6.2f%%%n", direction, 100.0 * moves[direction.ordinal()] / rows);
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Project: Game 2048
+ * Last Modified: 10/18/26 3:40 AM
+ *
+ * Copyright (C) 2026 Programmer-Yang_Xun@outlook.com. All Rights Reserved.
+ * Welcome to visit https://GitHub.com/Hydr10n
+ */
+
+package com.hydr10n.game2048.verifier;
+
+import com.hydr10n.game2048.engine.Replay;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Plays recorded games back with the app's rules and checks the scores they claim, e.g.
+ * java -jar verifier.jar --threads 8 replays/ some.replay
+ * Directories are searched for *.replay files, which are spread over the threads one at a time.
+ * Prints every rejected file and exits with 1 if there was any.
+ */
+public final class Verifier {
+    private static final String EXTENSION = ".replay";
+
+    private final File[] files;
+    private final AtomicInteger nextFile = new AtomicInteger();
+    private final AtomicLong valid = new AtomicLong(), invalid = new AtomicLong(), operations = new AtomicLong();
+
+    private Verifier(File[] files) {
+        this.files = files;
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int threads = Runtime.getRuntime().availableProcessors();
+        final List<File> files = new ArrayList<>();
+        try {
+            for (int i = 0; i < args.length; i++)
+                if (args[i].equals("--threads"))
+                    threads = Integer.parseInt(args[++i]);
+                else
+                    addFiles(new File(args[i]), files);
+            if (files.isEmpty() || threads < 1)
+                throw new IllegalArgumentException();
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException exception) {
+            System.err.println("usage: Verifier [--threads T] file.replay|directory...");
+            System.exit(2);
+        }
+        final Verifier verifier = new Verifier(files.toArray(new File[0]));
+        System.exit(verifier.run(threads) ? 0 : 1);
+    }
+
+    private static void addFiles(File file, List<File> files) {
+        if (!file.isDirectory()) {
+            if (!file.exists())
+                throw new IllegalArgumentException(file.getPath());
+            files.add(file);
+            return;
+        }
+        final File[] children = file.listFiles();
+        if (children == null)
+            return;
+        Arrays.sort(children);
+        for (File child : children)
+            if (child.isDirectory() || child.getName().endsWith(EXTENSION))
+                addFiles(child, files);
+    }
+
+    private boolean run(int threads) throws InterruptedException {
+        final long start = System.nanoTime();
+        final Thread[] workers = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    work();
+                }
+            });
+            workers[i].start();
+        }
+        for (Thread worker : workers)
+            worker.join();
+        final double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%d valid  %d rejected  %.0f replays/s  %.0f operations/s  threads %d%n", valid.get(), invalid.get(),
+                files.length / seconds, operations.get() / seconds, threads);
+        return invalid.get() == 0;
+    }
+
+    private void work() {
+        int index;
+        while ((index = nextFile.getAndIncrement()) < files.length) {
+            final File file = files[index];
+            String error;
+            try {
+                final Replay replay = Replay.fromBytes(Files.readAllBytes(file.toPath()));
+                operations.addAndGet(replay.getOperationsCount());
+                error = replay.verify() ? null : "score " + replay.getScore() + " not reproduced";
+            } catch (IOException exception) {
+                error = exception.getMessage();
+            }
+            if (error == null)
+                valid.incrementAndGet();
+            else {
+                invalid.incrementAndGet();
+                synchronized (System.out) {
+                    System.out.println(file.getPath() + ": " + error);
+                }
+            }
+        }
+    }
+}